@@ -47,6 +47,18 @@ export async function login(username: string, password: string) {
   return data;
 }
 
+// Revoga o token no backend antes de descartá-lo; falhas não impedem a saída local.
+export async function logout() {
+  const token = getToken();
+  if (token) {
+    await authApi
+      .post("/logout", null, { headers: { Authorization: `Bearer ${token}` } })
+      .catch(() => undefined);
+  }
+  clearToken();
+  localStorage.removeItem("roles");
+}
+
 export type RegisterPayload = {
   username: string; password: string; confirmPassword: string; roles: string[];
 };
@@ -58,3 +70,15 @@ export async function register(payload: RegisterPayload) {
 
 export default api;
 export const unwrap = <T>(res: any) => res?.data?.data as T;
+
+// Listagens são paginadas por cursor: segue o campo `next` até a última página.
+export async function fetchAllPages<T>(url: string, params: Record<string, any> = {}): Promise<T[]> {
+  const items: T[] = [];
+  let cursor: string | undefined;
+  do {
+    const res = await api.get(url, { params: { ...params, size: 100, cursor } });
+    items.push(...((res?.data?.data as T[]) ?? []));
+    cursor = res?.data?.next ?? undefined;
+  } while (cursor);
+  return items;
+}
@@ -0,0 +1,53 @@
+// Carga de leitura nos endpoints do catálogo, usada para comparar o pool de threads do
+// Tomcat com as threads virtuais (VIRTUAL_THREADS=false/true). Uso:
+//   k6 run -e BASE_URL=http://localhost:8080 -e USUARIO=leitor -e SENHA=... loadtest/catalogo.js
+import http from "k6/http";
+import { check } from "k6";
+
+const BASE_URL = __ENV.BASE_URL || "http://localhost:8080";
+const USUARIOS_VIRTUAIS = Number(__ENV.VUS || 400);
+
+export const options = {
+  scenarios: {
+    catalogo: {
+      executor: "ramping-vus",
+      startVUs: 0,
+      stages: [
+        { duration: "30s", target: USUARIOS_VIRTUAIS },
+        { duration: "2m", target: USUARIOS_VIRTUAIS },
+        { duration: "15s", target: 0 },
+      ],
+    },
+  },
+  thresholds: {
+    http_req_failed: ["rate<0.01"],
+  },
+  summaryTrendStats: ["avg", "p(50)", "p(95)", "p(99)", "max"],
+};
+
+export function setup() {
+  const res = http.post(
+    `${BASE_URL}/api/v1/auth/login`,
+    JSON.stringify({ username: __ENV.USUARIO, password: __ENV.SENHA }),
+    { headers: { "Content-Type": "application/json" } }
+  );
+  check(res, { "login 200": (r) => r.status === 200 });
+  const livros = http.get(`${BASE_URL}/api/v1/livros?size=100`, {
+    headers: { Authorization: `Bearer ${res.json("token")}` },
+  });
+  const ids = (livros.json("data") || []).map((l) => l.id);
+  return { token: res.json("token"), ids };
+}
+
+export default function (dados) {
+  const params = { headers: { Authorization: `Bearer ${dados.token}` } };
+  const id = dados.ids.length ? dados.ids[Math.floor(Math.random() * dados.ids.length)] : 1;
+  const respostas = http.batch([
+    ["GET", `${BASE_URL}/api/v1/livros?size=20`, null, { ...params, tags: { rota: "livros" } }],
+    ["GET", `${BASE_URL}/api/v1/livros/${id}`, null, { ...params, tags: { rota: "livro" } }],
+    ["GET", `${BASE_URL}/api/v1/livros?sort=titulo&size=20`, null, { ...params, tags: { rota: "livros-titulo" } }],
+    ["GET", `${BASE_URL}/api/v1/autores?size=20`, null, { ...params, tags: { rota: "autores" } }],
+    ["GET", `${BASE_URL}/api/v1/generos?size=20`, null, { ...params, tags: { rota: "generos" } }],
+  ]);
+  respostas.forEach((r) => check(r, { "status 200": (x) => x.status === 200 }));
+}
@@ -0,0 +1,45 @@
+package com.example.desafioTecnico.benchmarks;
+
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import com.example.desafioTecnico.security.JwtService;
+
+import java.util.Date;
+
+/** Massa de dados compartilhada entre os benchmarks. */
+final class Fixtures {
+
+    /** Segredo HMAC-SHA256 de 256 bits, apenas para benchmarks. */
+    static final String JWT_SECRET = "LhVC0v2Oyqrm1rIggQdpq2oE6lFCrYF8tmT5+3RIRX0=";
+
+    private Fixtures() {
+    }
+
+    static JwtService jwtService() {
+        return new JwtService(JWT_SECRET, 3_600_000L, 10_000L);
+    }
+
+    static Livro livro(long id) {
+        Autor autor = new Autor();
+        autor.setId(1L);
+        autor.setNome("Machado de Assis");
+        autor.setBiografia("Escritor brasileiro, fundador da Academia Brasileira de Letras.");
+        autor.setDataNascimento(new Date(0L));
+
+        Genero genero = new Genero();
+        genero.setId(2L);
+        genero.setNome("Romance");
+        genero.setDescricao("Narrativa longa em prosa.");
+
+        Livro livro = new Livro();
+        livro.setId(id);
+        livro.setTitulo("Dom Casmurro " + id);
+        livro.setIsbn("978-85359" + id);
+        livro.setEditora("Globo");
+        livro.setAnoPublicacao(1899);
+        livro.setAutor(autor);
+        livro.setGenero(genero);
+        return livro;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.desafioTecnico.benchmarks;
+
+import com.example.desafioTecnico.security.JwtAuthFilter;
+import com.example.desafioTecnico.security.JwtService;
+import com.example.desafioTecnico.security.ListaRevogacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autenticação de uma requisição com Bearer token válido pelo {@link JwtAuthFilter}.
+ * Cada operação usa requisição, resposta e contexto de segurança novos, como no servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthFilterBenchmark {
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = Fixtures.jwtService();
+        filter = new JwtAuthFilter(jwtService, new ListaRevogacao(10_000), new SimpleMeterRegistry());
+        authorization = "Bearer " + jwtService.generateToken("alice", Set.of("LEITURA"));
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/livros");
+        request.setServletPath("/api/v1/livros");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
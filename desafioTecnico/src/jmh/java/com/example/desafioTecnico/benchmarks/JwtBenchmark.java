@@ -0,0 +1,60 @@
+package com.example.desafioTecnico.benchmarks;
+
+import com.example.desafioTecnico.security.JwtService;
+import com.example.desafioTecnico.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/** Emissão e leitura de tokens pelo {@link JwtService}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = Fixtures.jwtService();
+        token = jwtService.generateToken("alice", Set.of("LEITURA", "ESCRITA"));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("alice", Set.of("LEITURA", "ESCRITA"));
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public Set<String> extractRoles() {
+        return jwtService.extractRoles(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return jwtService.verify(token);
+    }
+
+    /** Token novo a cada chamada: mede o caminho sem cache (parse + HMAC). */
+    @Benchmark
+    public VerifiedToken verifyUncached(TokenNovo novo) {
+        return jwtService.verify(novo.token);
+    }
+
+    @State(Scope.Thread)
+    public static class TokenNovo {
+        String token;
+
+        @Setup(Level.Invocation)
+        public void setup(JwtBenchmark benchmark) {
+            token = benchmark.jwtService.generateToken("bob-" + System.nanoTime(), Set.of("LEITURA"));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.desafioTecnico.benchmarks;
+
+import com.example.desafioTecnico.mappers.AutorMapper;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.entities.Livro;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por objeto do mapeamento entidade/DTO: ModelMapper (configuração antiga,
+ * STRICT + TypeMap com skip de id/autor/gênero) contra os mappers escritos à mão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private LivroMapper livroMapper;
+    private Livro livro;
+    private LivroCadastroDTO cadastro;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        modelMapper.typeMap(LivroCadastroDTO.class, Livro.class)
+                .addMappings(m -> {
+                    m.skip(Livro::setId);
+                    m.skip(Livro::setAutor);
+                    m.skip(Livro::setGenero);
+                });
+
+        livroMapper = new LivroMapper(new AutorMapper(), new GeneroMapper());
+
+        livro = Fixtures.livro(1L);
+        cadastro = new LivroCadastroDTO("Dom Casmurro", "978-8535910663", "Globo", 1899, 2L, 1L);
+    }
+
+    @Benchmark
+    public LivroResponseDTO modelMapperLivroParaResponse() {
+        return modelMapper.map(livro, LivroResponseDTO.class);
+    }
+
+    @Benchmark
+    public LivroResponseDTO livroMapperLivroParaResponse() {
+        return livroMapper.toResponse(livro);
+    }
+
+    @Benchmark
+    public Livro modelMapperCadastroParaLivro() {
+        return modelMapper.map(cadastro, Livro.class);
+    }
+
+    @Benchmark
+    public Livro livroMapperCadastroParaLivro() {
+        return livroMapper.toEntity(cadastro);
+    }
+}
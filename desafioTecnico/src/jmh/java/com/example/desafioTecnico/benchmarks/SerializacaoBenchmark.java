@@ -0,0 +1,84 @@
+package com.example.desafioTecnico.benchmarks;
+
+import com.example.desafioTecnico.config.ApiResponse;
+import com.example.desafioTecnico.mappers.AutorMapper;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialização JSON de {@code ApiResponse<List<LivroResponseDTO>>} em vários tamanhos de página,
+ * com o ObjectMapper padrão e com o Blackbird (como em {@code JacksonConfig}). O benchmark com
+ * gzip reporta também os bytes por resposta antes e depois da compressão (colunas
+ * {@code bytesJson} e {@code bytesGzip}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializacaoBenchmark {
+
+    @Param({"1", "20", "100", "1000"})
+    private int tamanho;
+
+    @Param({"padrao", "blackbird"})
+    private String jackson;
+
+    private ObjectWriter writer;
+    private ApiResponse<List<LivroResponseDTO>> resposta;
+
+    /** Tamanho da última resposta serializada; EVENTS reporta o valor atribuído, não uma taxa. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Bytes {
+        public long bytesJson;
+        public long bytesGzip;
+    }
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(jackson)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+
+        // Mesmo caminho do conversor HTTP do Spring: writer() sem tipo, serializador pela classe do valor
+        writer = objectMapper.writer();
+
+        LivroMapper mapper = new LivroMapper(new AutorMapper(), new GeneroMapper());
+        List<LivroResponseDTO> livros = LongStream.rangeClosed(1, tamanho)
+                .mapToObj(Fixtures::livro)
+                .map(mapper::toResponse)
+                .toList();
+        resposta = ApiResponse.ok(livros);
+    }
+
+    @Benchmark
+    public byte[] serializarListaDeLivros() throws Exception {
+        return writer.writeValueAsBytes(resposta);
+    }
+
+    /** Serialização seguida de gzip no nível padrão, o que o Tomcat faz com server.compression. */
+    @Benchmark
+    public byte[] serializarEComprimir(Bytes bytes) throws Exception {
+        byte[] json = writer.writeValueAsBytes(resposta);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        }
+        bytes.bytesJson = json.length;
+        bytes.bytesGzip = saida.size();
+        return saida.toByteArray();
+    }
+}
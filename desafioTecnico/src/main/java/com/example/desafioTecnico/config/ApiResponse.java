@@ -1,19 +1,33 @@
 package com.example.desafioTecnico.config;
 
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.util.List;
+
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record ApiResponse<T>(
         int status,
         String message,
-        T data
+        T data,
+        String next
 ) {
+    public ApiResponse(int status, String message, T data) {
+        this(status, message, data, null);
+    }
+
     public static <T> ApiResponse<T> ok(T data) {
         return new ApiResponse<>(200, "OK", data);
     }
+    public static <T> ApiResponse<List<T>> page(CursorPage<T> page) {
+        return new ApiResponse<>(200, "OK", page.items(), page.next());
+    }
     public static <T> ApiResponse<T> created(T data) {
         return new ApiResponse<>(201, "Created", data);
     }
+    public static <T> ApiResponse<T> accepted(T data) {
+        return new ApiResponse<>(202, "Accepted", data);
+    }
     public static <T> ApiResponse<T> noContent() {
         return new ApiResponse<>(204, "No Content", null);
     }
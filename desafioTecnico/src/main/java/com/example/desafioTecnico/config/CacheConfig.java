@@ -0,0 +1,56 @@
+package com.example.desafioTecnico.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache em memória dos dados de referência (autores e gêneros), que são lidos o tempo todo
+ * e mudam pouco. Os caches são transacionais: put/evict feitos dentro de uma transação só
+ * são aplicados depois do commit, então um rollback nunca invalida nem publica nada.
+ * <p>
+ * As versões usadas nas ETags ficam em caches próprios ({@code *Versoes}), por id e na chave
+ * {@link #CHAVE_VERSAO_COLECAO}, e são invalidadas junto com os dados: um GET, inclusive o que
+ * termina em 304, não vai ao banco enquanto o autor ou gênero estiver no cache.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String AUTORES = "autores";
+    public static final String AUTORES_PAGINAS = "autoresPaginas";
+    public static final String GENEROS = "generos";
+    public static final String GENEROS_PAGINAS = "generosPaginas";
+    public static final String AUTORES_VERSOES = "autoresVersoes";
+    public static final String GENEROS_VERSOES = "generosVersoes";
+
+    /** Chave (SpEL) da versão da coleção inteira nos caches de versões; as demais chaves são ids. */
+    public static final String CHAVE_VERSAO_COLECAO = "'colecao'";
+
+    public static final List<String> CACHES =
+            List.of(AUTORES, AUTORES_PAGINAS, AUTORES_VERSOES, GENEROS, GENEROS_PAGINAS, GENEROS_VERSOES);
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.referencia.ttl:10m}") Duration ttl,
+            @Value("${app.cache.referencia.max-size:1000}") long maxSize) {
+
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats());
+        caffeine.setCacheNames(CACHES);
+        caffeine.setAllowNullValues(false);
+
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.desafioTecnico.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine): autores, gêneros e livros por id,
+ * livros pelo ISBN (natural id) e as coleções de livros de autor/gênero.
+ * <p>
+ * Todas as regiões são READ_WRITE: o que o Hibernate grava entra no cache no commit e os
+ * UPDATE/DELETE em lote invalidam as regiões afetadas. Com {@code auto_evict_collection_cache},
+ * gravar um livro também invalida a coleção do autor e do gênero dele, que é o lado
+ * {@code mappedBy} e não seria atualizado sozinho. Cada região tem tamanho e TTL próprios em
+ * {@code app.cache.l2.<regiao>.max-size} e {@code .ttl}.
+ */
+@Configuration
+public class CacheL2Config {
+
+    public static final String AUTOR = "autor";
+    public static final String AUTOR_LIVROS = "autor-livros";
+    public static final String GENERO = "genero";
+    public static final String GENERO_LIVROS = "genero-livros";
+    public static final String LIVRO = "livro";
+    public static final String LIVRO_ISBN = "livro-isbn";
+
+    private record Regiao(String nome, long tamanho, Duration ttl) {}
+
+    // Padrões usados quando a propriedade não está definida
+    private static final List<Regiao> REGIOES = List.of(
+            new Regiao(AUTOR, 10_000, Duration.ofHours(1)),
+            new Regiao(AUTOR_LIVROS, 1_000, Duration.ofMinutes(10)),
+            new Regiao(GENERO, 1_000, Duration.ofHours(1)),
+            new Regiao(GENERO_LIVROS, 200, Duration.ofMinutes(10)),
+            new Regiao(LIVRO, 50_000, Duration.ofMinutes(10)),
+            new Regiao(LIVRO_ISBN, 50_000, Duration.ofMinutes(10)));
+
+    public static final List<String> REGIOES_NOMES = REGIOES.stream().map(Regiao::nome).toList();
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheL2Customizer(Environment environment) {
+        Binder binder = Binder.get(environment);
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (Regiao regiao : REGIOES) {
+            String prefixo = "app.cache.l2." + regiao.nome();
+            long tamanho = binder.bind(prefixo + ".max-size", Long.class).orElse(regiao.tamanho());
+            Duration ttl = binder.bind(prefixo + ".ttl", Duration.class).orElse(regiao.ttl());
+            // O CacheManager padrão do provedor é único na JVM; outro contexto (testes) pode já ter criado
+            if (cacheManager.getCache(regiao.nome()) == null) {
+                cacheManager.createCache(regiao.nome(), configuracao(tamanho, ttl));
+            }
+        }
+        return propriedades -> {
+            propriedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Região anotada numa entidade e não listada acima é erro de configuração, não um cache sem limite
+            propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            propriedades.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracao(long tamanho, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        configuracao.setMaximumSize(OptionalLong.of(tamanho));
+        configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        // O Hibernate já guarda cópias desmontadas da entidade; copiar de novo a cada get/put só custaria CPU
+        configuracao.setStoreByValue(false);
+        return configuracao;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.desafioTecnico.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Conta os comandos SQL que o Hibernate executa na thread atual enquanto há uma medição
+ * aberta ({@link #iniciar()} / {@link #encerrar()}). Os comandos são agrupados pelo texto
+ * normalizado, então o mesmo SELECT repetido com parâmetros diferentes, típico de N+1,
+ * aparece como uma entrada com contagem alta. Sem medição aberta não faz nada.
+ */
+public class ContadorSql implements StatementInspector {
+
+    private static final ThreadLocal<Map<String, Integer>> ATUAL = new ThreadLocal<>();
+    private static final Pattern LISTA_IN = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    /** Resultado de uma medição: total de comandos e contagem por comando normalizado. */
+    public record Relatorio(int total, Map<String, Integer> porComando) {
+
+        public Map<String, Integer> repetidos(int minimo) {
+            Map<String, Integer> repetidos = new LinkedHashMap<>();
+            porComando.forEach((sql, vezes) -> {
+                if (vezes >= minimo) {
+                    repetidos.put(sql, vezes);
+                }
+            });
+            return repetidos;
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Map<String, Integer> contagem = ATUAL.get();
+        if (contagem != null) {
+            contagem.merge(normalizar(sql), 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    public static void iniciar() {
+        ATUAL.set(new LinkedHashMap<>());
+    }
+
+    public static Relatorio encerrar() {
+        Map<String, Integer> contagem = ATUAL.get();
+        ATUAL.remove();
+        if (contagem == null) {
+            return new Relatorio(0, Map.of());
+        }
+        return new Relatorio(soma(contagem), Collections.unmodifiableMap(contagem));
+    }
+
+    /** Total de comandos da medição aberta na thread atual (0 se não houver). */
+    public static int total() {
+        Map<String, Integer> contagem = ATUAL.get();
+        return contagem == null ? 0 : soma(contagem);
+    }
+
+    /** Executa {@code acao} com uma medição própria; usado nos testes de orçamento de consultas. */
+    public static <T> Medicao<T> medir(Supplier<T> acao) {
+        iniciar();
+        T resultado;
+        try {
+            resultado = acao.get();
+        } catch (RuntimeException ex) {
+            encerrar();
+            throw ex;
+        }
+        return new Medicao<>(resultado, encerrar());
+    }
+
+    public record Medicao<T>(T resultado, Relatorio relatorio) {
+    }
+
+    static String normalizar(String sql) {
+        String semListas = LISTA_IN.matcher(sql).replaceAll("(?)");
+        return ESPACOS.matcher(semListas).replaceAll(" ").trim();
+    }
+
+    private static int soma(Map<String, Integer> contagem) {
+        int total = 0;
+        for (int vezes : contagem.values()) {
+            total += vezes;
+        }
+        return total;
+    }
+}
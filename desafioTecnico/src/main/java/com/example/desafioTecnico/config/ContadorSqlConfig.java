@@ -0,0 +1,15 @@
+package com.example.desafioTecnico.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ContadorSqlConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSqlCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSql());
+    }
+}
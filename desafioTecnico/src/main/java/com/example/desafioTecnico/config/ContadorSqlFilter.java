@@ -0,0 +1,59 @@
+package com.example.desafioTecnico.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Abre uma medição do {@link ContadorSql} por requisição. Ao final registra quantos comandos
+ * a requisição executou e avisa no log quando o mesmo comando se repete, sinal de N+1.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ContadorSqlFilter extends OncePerRequestFilter {
+
+    private final int repeticaoAlerta;
+    private final DistributionSummary comandosPorRequisicao;
+
+    public ContadorSqlFilter(@Value("${app.sql.repeticao-alerta:3}") int repeticaoAlerta,
+                             MeterRegistry meterRegistry) {
+        this.repeticaoAlerta = repeticaoAlerta;
+        this.comandosPorRequisicao = DistributionSummary.builder("sql.statements.per.request")
+                .description("Comandos SQL executados pelo Hibernate por requisição")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ContadorSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContadorSql.Relatorio relatorio = ContadorSql.encerrar();
+            comandosPorRequisicao.record(relatorio.total());
+            Map<String, Integer> repetidos = relatorio.repetidos(repeticaoAlerta);
+            if (!repetidos.isEmpty()) {
+                repetidos.forEach((sql, vezes) -> log.warn("Possível N+1 em {} {}: {}x {}",
+                        request.getMethod(), request.getRequestURI(), vezes, sql));
+            } else if (log.isDebugEnabled()) {
+                log.debug("{} {}: {} comandos SQL", request.getMethod(), request.getRequestURI(), relatorio.total());
+            }
+        }
+    }
+}
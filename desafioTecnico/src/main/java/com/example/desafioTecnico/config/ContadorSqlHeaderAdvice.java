@@ -0,0 +1,34 @@
+package com.example.desafioTecnico.config;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Só no profile "dev": devolve no header X-SQL-Statements quantos comandos SQL a requisição
+ * executou até o corpo ser escrito (com open-in-view desligado, não há consultas depois disso).
+ */
+@Profile("dev")
+@RestControllerAdvice
+public class ContadorSqlHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Statements";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(HEADER, String.valueOf(ContadorSql.total()));
+        return body;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.desafioTecnico.config;
+
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Ajustes da serialização JSON das respostas. O Blackbird troca a reflexão nos getters dos
+ * DTOs por acessores gerados em tempo de execução; os serializadores dos tipos de resposta
+ * são montados na subida, então a primeira requisição de cada endpoint não paga por isso.
+ */
+@Slf4j
+@Configuration
+public class JacksonConfig {
+
+    static final List<Class<?>> TIPOS_RESPOSTA =
+            List.of(LivroResponseDTO.class, AutorResponseDTO.class, GeneroResponseDTO.class);
+
+    /** Registrado no ObjectMapper do Spring Boot junto com os demais beans de {@link Module}. */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * O conversor HTTP escreve {@link ApiResponse} pelo {@code writer()} sem tipo, então o serializador
+     * raiz sai da classe do valor; {@code data} é genérico e cada DTO é resolvido pela própria classe
+     * na escrita. São essas as entradas aquecidas no cache compartilhado do ObjectMapper.
+     */
+    @Bean
+    public SmartInitializingSingleton preResolverSerializadores(ObjectMapper objectMapper) {
+        return () -> {
+            SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+            try {
+                provider.findTypedValueSerializer(ApiResponse.class, true, null);
+                for (Class<?> dto : TIPOS_RESPOSTA) {
+                    provider.findValueSerializer(dto);
+                }
+            } catch (JsonMappingException ex) {
+                // Só adianta trabalho: a primeira resposta resolve de novo e reporta o erro
+                log.warn("Falha ao pré-resolver serializadores: {}", ex.getMessage());
+                return;
+            }
+            log.debug("Serializadores pré-resolvidos para ApiResponse e {}", TIPOS_RESPOSTA);
+        };
+    }
+}
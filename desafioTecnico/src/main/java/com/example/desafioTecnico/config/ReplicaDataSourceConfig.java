@@ -0,0 +1,71 @@
+package com.example.desafioTecnico.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Pools do primário e da réplica de leitura, ligados só quando {@code app.datasource.replica.url}
+ * está configurada; sem ela a aplicação segue com o único pool do Spring Boot.
+ * <p>
+ * Cada pool aparece nas métricas {@code hikaricp.connections.*} com a tag {@code pool}
+ * (primario/replica). As migrações do Flyway rodam sempre no primário.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource dataSourceReplica(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:}") String username,
+                                              @Value("${app.datasource.replica.password:}") String password,
+                                              @Value("${app.datasource.replica.pool-size:20}") int tamanhoPool,
+                                              @Value("${spring.datasource.hikari.connection-timeout:5000}") long timeoutMs) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        // Sem usuário próprio, usa as credenciais do primário
+        dataSource.setUsername(username.isBlank() ? properties.determineUsername() : username);
+        dataSource.setPassword(username.isBlank() ? properties.determinePassword() : password);
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(tamanhoPool);
+        dataSource.setConnectionTimeout(timeoutMs);
+        dataSource.setReadOnly(true);
+        // Réplica fora do ar na subida não impede a aplicação de subir; as leituras ficam no primário
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public RoteadorDataSource roteadorDataSource(HikariDataSource dataSourcePrimario,
+                                                 HikariDataSource dataSourceReplica,
+                                                 @Value("${app.datasource.replica.atraso-maximo:2s}") Duration atrasoMaximo) {
+        return new RoteadorDataSource(dataSourcePrimario, dataSourceReplica, atrasoMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorDataSource roteadorDataSource) {
+        return new LazyConnectionDataSourceProxy(roteadorDataSource);
+    }
+}
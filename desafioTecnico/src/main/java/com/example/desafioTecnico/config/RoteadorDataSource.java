@@ -0,0 +1,169 @@
+package com.example.desafioTecnico.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Envia as transações {@code readOnly} para a réplica e todo o resto para o primário.
+ * <p>
+ * A réplica só é usada enquanto a última verificação (a cada
+ * {@code app.datasource.replica.verificacao-ms}) a encontrou no ar e com atraso de replicação
+ * até {@code app.datasource.replica.atraso-maximo}; fora disso, ou se abrir a conexão falhar,
+ * a leitura vai para o primário e fica contada em {@code db.replica.desvios}.
+ * <p>
+ * Precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}: o gerenciador de transação
+ * pede a conexão antes de marcar a transação como somente leitura, e o proxy adia a escolha
+ * até o primeiro comando.
+ */
+@Slf4j
+public class RoteadorDataSource extends AbstractDataSource implements MeterBinder {
+
+    enum Destino { PRIMARIO, REPLICA }
+
+    enum Desvio { INDISPONIVEL, ATRASADA, ERRO }
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final long atrasoMaximoMs;
+
+    private volatile boolean replicaDisponivel;
+    private volatile boolean replicaAtrasada;
+    private volatile double atrasoSegundos = Double.NaN;
+
+    private final Map<Destino, Counter> conexoes = new EnumMap<>(Destino.class);
+    private final Map<Desvio, Counter> desvios = new EnumMap<>(Desvio.class);
+
+    RoteadorDataSource(DataSource primario, DataSource replica, Duration atrasoMaximo) {
+        this.primario = primario;
+        this.replica = replica;
+        this.atrasoMaximoMs = atrasoMaximo.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!replicaDisponivel) {
+                desviar(Desvio.INDISPONIVEL);
+            } else if (replicaAtrasada) {
+                desviar(Desvio.ATRASADA);
+            } else {
+                try {
+                    Connection conexao = replica.getConnection();
+                    contar(Destino.REPLICA);
+                    return conexao;
+                } catch (SQLException ex) {
+                    // Até a próxima verificação as leituras ficam no primário
+                    replicaDisponivel = false;
+                    desviar(Desvio.ERRO);
+                    log.warn("Falha ao abrir conexão com a réplica, usando o primário: {}", ex.getMessage());
+                }
+            }
+        }
+        contar(Destino.PRIMARIO);
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Credenciais explícitas só aparecem em ferramentas administrativas: sempre o primário
+        contar(Destino.PRIMARIO);
+        return primario.getConnection(username, password);
+    }
+
+    /** Verifica se a réplica responde e quanto está atrasada; também roda logo na subida. */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.verificacao-ms:5000}")
+    public void verificar() {
+        try (Connection conexao = replica.getConnection()) {
+            Long atraso = lerAtrasoMs(conexao);
+            atrasoSegundos = atraso == null ? Double.NaN : atraso / 1000.0;
+            // Atraso desconhecido (replicação parada) conta como atrasada
+            boolean atrasada = atraso == null || atraso > atrasoMaximoMs;
+            if (atrasada && !replicaAtrasada) {
+                log.warn("Réplica atrasada ({} ms), leituras no primário", atraso);
+            } else if (!atrasada && replicaAtrasada) {
+                log.info("Réplica em dia ({} ms), leituras voltam para ela", atraso);
+            }
+            replicaAtrasada = atrasada;
+            if (!replicaDisponivel) {
+                log.info("Réplica disponível");
+            }
+            replicaDisponivel = true;
+        } catch (SQLException ex) {
+            if (replicaDisponivel) {
+                log.warn("Réplica indisponível, leituras no primário: {}", ex.getMessage());
+            }
+            replicaDisponivel = false;
+            atrasoSegundos = Double.NaN;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Destino destino : Destino.values()) {
+            conexoes.put(destino, Counter.builder("db.roteamento.conexoes")
+                    .description("Conexões entregues por destino")
+                    .tag("destino", destino.name().toLowerCase())
+                    .register(registry));
+        }
+        for (Desvio desvio : Desvio.values()) {
+            desvios.put(desvio, Counter.builder("db.replica.desvios")
+                    .description("Leituras enviadas ao primário porque a réplica não podia atender")
+                    .tag("motivo", desvio.name().toLowerCase())
+                    .register(registry));
+        }
+        Gauge.builder("db.replica.disponivel", this, r -> r.replicaDisponivel && !r.replicaAtrasada ? 1 : 0)
+                .description("1 quando as leituras estão indo para a réplica")
+                .register(registry);
+        Gauge.builder("db.replica.atraso", this, r -> r.atrasoSegundos)
+                .description("Atraso de replicação na última verificação, em segundos")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Atraso em milissegundos a partir de {@code Seconds_Behind_Source} no MySQL ({@code null} com a
+     * replicação parada); 0 em outros bancos e num MySQL que não é réplica, em que não há atraso a medir.
+     */
+    Long lerAtrasoMs(Connection conexao) throws SQLException {
+        if (!"MySQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+            return 0L;
+        }
+        try (Statement statement = conexao.createStatement();
+             ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!status.next()) {
+                return 0L;
+            }
+            long atraso = status.getLong("Seconds_Behind_Source");
+            return status.wasNull() ? null : Duration.ofSeconds(atraso).toMillis();
+        }
+    }
+
+    private void contar(Destino destino) {
+        Counter contador = conexoes.get(destino);
+        if (contador != null) {
+            contador.increment();
+        }
+    }
+
+    private void desviar(Desvio desvio) {
+        Counter contador = desvios.get(desvio);
+        if (contador != null) {
+            contador.increment();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.desafioTecnico.config;
 
 import com.example.desafioTecnico.security.JwtAuthFilter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -42,12 +43,16 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers(
                                 "/api/v1/auth/**",
+                                "/error",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
                                 "/swagger-resources/**",
                                 "/webjars/**"
                         ).permitAll()
 
+                        // Actuator: só na porta de gerenciamento (management.server.port), que não é publicada
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
+
                         // GET sob /api/v1/**: LEITURA OU ESCRITA
                         .requestMatchers(HttpMethod.GET, "/api/v1/**").hasAnyRole("LEITURA", "ESCRITA")
 
@@ -85,9 +90,11 @@ public class SecurityConfig {
                 "Authorization",
                 "Content-Type",
                 "Accept",
-                "X-Requested-With"
+                "X-Requested-With",
+                "If-None-Match"
         ));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Content-Disposition", "X-SQL-Statements", "X-Total-Count",
+                "Location"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
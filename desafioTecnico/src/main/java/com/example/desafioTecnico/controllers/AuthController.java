@@ -1,28 +1,38 @@
 package com.example.desafioTecnico.controllers;
 
+import com.example.desafioTecnico.models.dto.LoginDtos;
 import com.example.desafioTecnico.models.dto.RegisterDtos;
 import com.example.desafioTecnico.services.AuthService;
+import com.example.desafioTecnico.services.RevogacaoTokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Set;
-
 @RestController
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthService authService;
+    private static final String BEARER_PREFIX = "Bearer ";
 
-    public record LoginRequest(String username, String password) {}
-    public record LoginResponse(String token, Set<String> roles) {}
+    private final AuthService authService;
+    private final RevogacaoTokenService revogacaoTokenService;
 
     @PostMapping("/login")
-    public LoginResponse login(@RequestBody LoginRequest body) {
-        String token = authService.authenticateAndGenerateToken(body.username(), body.password());
-        Set<String> roles = authService.getUserRoles(body.username());
-        return new LoginResponse(token, roles);
+    public LoginDtos.LoginResponse login(@RequestBody LoginDtos.LoginRequest body) {
+        return authService.login(body.username(), body.password());
+    }
+
+    /** Revoga o token enviado no cabeçalho Authorization até o seu "exp". */
+    @PostMapping("/logout")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (!authorization.startsWith(BEARER_PREFIX)) {
+            throw new BadCredentialsException("Token inválido");
+        }
+        revogacaoTokenService.revogar(authorization.substring(BEARER_PREFIX.length()));
     }
 
     @PostMapping("/register")
@@ -3,10 +3,15 @@ package com.example.desafioTecnico.controllers;
 import com.example.desafioTecnico.config.ApiResponse;
 import com.example.desafioTecnico.models.dto.AutorCadastroDTO;
 import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.CursorPage;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
 import com.example.desafioTecnico.services.AutorService;
+import com.example.desafioTecnico.services.LivroService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -14,10 +19,14 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/v1/autores")
 public class AutorController {
+    private static final String TOTAL = "X-Total-Count";
+
     private final AutorService service;
+    private final LivroService livroService;
 
-    public AutorController(AutorService service) {
+    public AutorController(AutorService service, LivroService livroService) {
         this.service = service;
+        this.livroService = livroService;
     }
 
     @PostMapping
@@ -28,13 +37,38 @@ public class AutorController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<AutorResponseDTO>> buscar(@PathVariable Long id){
-        return ResponseEntity.ok(ApiResponse.ok(service.buscar(id)));
+    public ResponseEntity<ApiResponse<AutorResponseDTO>> buscar(@PathVariable Long id, WebRequest request){
+        String etag = ETags.recurso(service.versao(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.ok(service.buscar(id)));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AutorResponseDTO>>> listar(){
-        return ResponseEntity.ok(ApiResponse.ok(service.listar()));
+    public ResponseEntity<ApiResponse<List<AutorResponseDTO>>> listar(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String sort,
+                                                                  WebRequest request){
+        String etag = ETags.colecao(service.versaoColecao(), cursor, size, sort);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.page(service.listar(cursor, size, sort)));
+    }
+
+    /** Livros do autor por id; a primeira página traz o total em {@code X-Total-Count}. */
+    @GetMapping("/{id}/livros")
+    public ResponseEntity<ApiResponse<List<LivroResponseDTO>>> livros(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size){
+        CursorPage<LivroResponseDTO> pagina = livroService.listarPorAutor(id, cursor, size);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (cursor == null) {
+            long total = pagina.next() == null ? pagina.items().size() : livroService.contarPorAutor(id);
+            resposta.header(TOTAL, String.valueOf(total));
+        }
+        return resposta.body(ApiResponse.page(pagina));
     }
 
     @PutMapping("/{id}")
@@ -42,9 +76,12 @@ public class AutorController {
         return ResponseEntity.ok(ApiResponse.ok(service.atualizar(id, dto)));
     }
 
+    /** 202: o autor some das leituras na hora e os livros são apagados em segundo plano. */
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deletar(@PathVariable Long id){
-        service.deletar(id);
-        return ResponseEntity.status(204).body(ApiResponse.noContent());
+    public ResponseEntity<ApiResponse<RemocaoDTO>> deletar(@PathVariable Long id){
+        RemocaoDTO remocao = service.deletar(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/remocoes/" + remocao.id()))
+                .body(ApiResponse.accepted(remocao));
     }
 }
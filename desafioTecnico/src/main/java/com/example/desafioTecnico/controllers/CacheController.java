@@ -0,0 +1,26 @@
+package com.example.desafioTecnico.controllers;
+
+import com.example.desafioTecnico.config.ApiResponse;
+import com.example.desafioTecnico.models.dto.CacheEstatisticasDTO;
+import com.example.desafioTecnico.services.CacheEstatisticasService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/caches")
+public class CacheController {
+    private final CacheEstatisticasService service;
+
+    public CacheController(CacheEstatisticasService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/estatisticas")
+    public ResponseEntity<ApiResponse<Map<String, CacheEstatisticasDTO>>> estatisticas(){
+        return ResponseEntity.ok(ApiResponse.ok(service.estatisticas()));
+    }
+}
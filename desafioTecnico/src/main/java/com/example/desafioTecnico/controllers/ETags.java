@@ -0,0 +1,31 @@
+package com.example.desafioTecnico.controllers;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Montagem de ETags a partir das versões calculadas pelos serviços. As ETags são fracas
+ * (W/): a mesma versão pode sair comprimida ou não, e o Tomcat não comprime respostas
+ * com ETag forte. If-None-Match usa comparação fraca, então o 304 continua funcionando.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String recurso(String versao) {
+        return "W/\"" + versao + "\"";
+    }
+
+    /** A ETag de uma listagem depende da versão da coleção e dos parâmetros da página. */
+    static String colecao(String versaoColecao, Object... parametros) {
+        String base = versaoColecao + Arrays.stream(parametros)
+                .map(Objects::toString)
+                .collect(Collectors.joining(",", "?", ""));
+        return "W/\"" + DigestUtils.md5DigestAsHex(base.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
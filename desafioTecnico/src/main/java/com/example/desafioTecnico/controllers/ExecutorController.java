@@ -0,0 +1,26 @@
+package com.example.desafioTecnico.controllers;
+
+import com.example.desafioTecnico.config.ApiResponse;
+import com.example.desafioTecnico.models.dto.ExecutorEstatisticasDTO;
+import com.example.desafioTecnico.security.VerificadorSenha;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/executores")
+public class ExecutorController {
+    private final VerificadorSenha verificadorSenha;
+
+    public ExecutorController(VerificadorSenha verificadorSenha) {
+        this.verificadorSenha = verificadorSenha;
+    }
+
+    @GetMapping("/estatisticas")
+    public ResponseEntity<ApiResponse<Map<String, ExecutorEstatisticasDTO>>> estatisticas(){
+        return ResponseEntity.ok(ApiResponse.ok(Map.of("verificacaoSenha", verificadorSenha.estatisticas())));
+    }
+}
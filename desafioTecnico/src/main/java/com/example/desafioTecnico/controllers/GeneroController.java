@@ -1,12 +1,17 @@
 package com.example.desafioTecnico.controllers;
 
 import com.example.desafioTecnico.config.ApiResponse;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.dto.GeneroCadastroDTO;
 import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
 import com.example.desafioTecnico.services.GeneroService;
+import com.example.desafioTecnico.services.LivroService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.net.URI;
@@ -15,10 +20,14 @@ import java.net.URI;
 @RestController
 @RequestMapping("/api/v1/generos")
 public class GeneroController {
+    private static final String TOTAL = "X-Total-Count";
+
     private final GeneroService service;
+    private final LivroService livroService;
 
-    public GeneroController(GeneroService service) {
+    public GeneroController(GeneroService service, LivroService livroService) {
         this.service = service;
+        this.livroService = livroService;
     }
 
     @PostMapping
@@ -33,14 +42,38 @@ public class GeneroController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<GeneroResponseDTO>> buscar(@PathVariable Long id){
-        GeneroResponseDTO genero =  service.buscar(id);
-        return ResponseEntity.ok(ApiResponse.ok(genero));
+    public ResponseEntity<ApiResponse<GeneroResponseDTO>> buscar(@PathVariable Long id, WebRequest request){
+        String etag = ETags.recurso(service.versao(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.ok(service.buscar(id)));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<GeneroResponseDTO>>> listar(){
-        return ResponseEntity.ok(ApiResponse.ok(service.listar()));
+    public ResponseEntity<ApiResponse<List<GeneroResponseDTO>>> listar(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String sort,
+                                                                  WebRequest request){
+        String etag = ETags.colecao(service.versaoColecao(), cursor, size, sort);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.page(service.listar(cursor, size, sort)));
+    }
+
+    /** Livros do gênero por id; a primeira página traz o total em {@code X-Total-Count}. */
+    @GetMapping("/{id}/livros")
+    public ResponseEntity<ApiResponse<List<LivroResponseDTO>>> livros(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size){
+        CursorPage<LivroResponseDTO> pagina = livroService.listarPorGenero(id, cursor, size);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (cursor == null) {
+            long total = pagina.next() == null ? pagina.items().size() : livroService.contarPorGenero(id);
+            resposta.header(TOTAL, String.valueOf(total));
+        }
+        return resposta.body(ApiResponse.page(pagina));
     }
 
     @PutMapping("/{id}")
@@ -48,9 +81,12 @@ public class GeneroController {
         return ResponseEntity.ok(ApiResponse.ok(service.atualizar(id, dto)));
     }
 
+    /** 202: o gênero some das leituras na hora e os livros são apagados em segundo plano. */
     @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deletar(@PathVariable Long id){
-        service.deletar(id);
-        return ResponseEntity.status(204).body(ApiResponse.noContent());
+    public ResponseEntity<ApiResponse<RemocaoDTO>> deletar(@PathVariable Long id){
+        RemocaoDTO remocao = service.deletar(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/remocoes/" + remocao.id()))
+                .body(ApiResponse.accepted(remocao));
     }
 }
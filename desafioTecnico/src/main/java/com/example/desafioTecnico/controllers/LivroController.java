@@ -1,14 +1,33 @@
 package com.example.desafioTecnico.controllers;
 
 import com.example.desafioTecnico.config.ApiResponse;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.models.dto.ImportacaoResultadoDTO;
 import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.dto.LivroEstatisticasDTO;
 import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.enums.FormatoArquivo;
+import com.example.desafioTecnico.services.BuscaLivroService;
+import com.example.desafioTecnico.services.EstatisticasLivroService;
+import com.example.desafioTecnico.services.ExportacaoLivroService;
+import com.example.desafioTecnico.services.ImportacaoLivroService;
 import com.example.desafioTecnico.services.LivroService;
 import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.net.URI;
 
 
@@ -16,10 +35,22 @@ import java.net.URI;
 @RequestMapping("/api/v1/livros")
 public class LivroController {
     private final LivroService service;
+    private final BuscaLivroService buscaService;
+    private final ImportacaoLivroService importacaoService;
+    private final ExportacaoLivroService exportacaoService;
+    private final EstatisticasLivroService estatisticasService;
 
 
-    public LivroController(LivroService service) {
+    public LivroController(LivroService service,
+                           BuscaLivroService buscaService,
+                           ImportacaoLivroService importacaoService,
+                           ExportacaoLivroService exportacaoService,
+                           EstatisticasLivroService estatisticasService) {
         this.service = service;
+        this.buscaService = buscaService;
+        this.importacaoService = importacaoService;
+        this.exportacaoService = exportacaoService;
+        this.estatisticasService = estatisticasService;
     }
 
     @PostMapping
@@ -29,14 +60,72 @@ public class LivroController {
                 .body(ApiResponse.created(created));
     }
 
+    // O corpo é lido em streaming, sem carregar o arquivo inteiro em memória.
+    @PostMapping(value = "/importacao", consumes = "application/x-ndjson")
+    public ResponseEntity<ApiResponse<ImportacaoResultadoDTO>> importarNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(ApiResponse.ok(importacaoService.importar(leitor(body), FormatoArquivo.NDJSON)));
+    }
+
+    @PostMapping(value = "/importacao", consumes = "text/csv")
+    public ResponseEntity<ApiResponse<ImportacaoResultadoDTO>> importarCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(ApiResponse.ok(importacaoService.importar(leitor(body), FormatoArquivo.CSV)));
+    }
+
+    // Escrita fora da thread da requisição, direto do cursor do banco para a resposta.
+    @GetMapping("/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "ndjson") String formato){
+        FormatoArquivo arquivo = formatoArquivo(formato);
+        MediaType tipo = arquivo == FormatoArquivo.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType("application/x-ndjson");
+        ContentDisposition anexo = ContentDisposition.attachment()
+                .filename("livros." + arquivo.name().toLowerCase(Locale.ROOT))
+                .build();
+        StreamingResponseBody corpo = saida -> exportacaoService.exportar(saida, arquivo);
+        return ResponseEntity.ok()
+                .contentType(tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, anexo.toString())
+                .body(corpo);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<LivroResponseDTO>> buscar(@PathVariable Long id){
-        return ResponseEntity.ok(ApiResponse.ok(service.buscar(id)));
+    public ResponseEntity<ApiResponse<LivroResponseDTO>> buscar(@PathVariable Long id, WebRequest request){
+        String etag = ETags.recurso(service.versao(id));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.ok(service.buscar(id)));
+    }
+
+    // Sem ETag: a consulta de versão custaria a ida ao banco que o cache L2 evita nesta busca
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<ApiResponse<LivroResponseDTO>> buscarPorIsbn(@PathVariable String isbn){
+        return ResponseEntity.ok(ApiResponse.ok(service.buscarPorIsbn(isbn)));
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<LivroResponseDTO>>> listar(){
-        return ResponseEntity.ok(ApiResponse.ok(service.listar()));
+    public ResponseEntity<ApiResponse<List<LivroResponseDTO>>> listar(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String sort,
+                                                                  WebRequest request){
+        String etag = ETags.colecao(service.versaoColecao(), cursor, size, sort);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.page(service.listar(cursor, size, sort)));
+    }
+
+    // Contadores em memória, sem consulta ao banco.
+    @GetMapping("/estatisticas")
+    public ResponseEntity<ApiResponse<LivroEstatisticasDTO>> estatisticas(){
+        return ResponseEntity.ok(ApiResponse.ok(estatisticasService.estatisticas()));
+    }
+
+    @GetMapping("/busca")
+    public ResponseEntity<ApiResponse<List<LivroResponseDTO>>> buscarTexto(@RequestParam String q,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer size){
+        return ResponseEntity.ok(ApiResponse.page(buscaService.buscar(q, cursor, size)));
     }
 
     @PutMapping("/{id}")
@@ -49,4 +138,16 @@ public class LivroController {
         service.deletar(id);
         return ResponseEntity.status(204).body(ApiResponse.noContent());
     }
+
+    private static BufferedReader leitor(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private static FormatoArquivo formatoArquivo(String formato) {
+        try {
+            return FormatoArquivo.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ParametroInvalidoException("Formato inválido: " + formato + " (use ndjson ou csv)");
+        }
+    }
 }
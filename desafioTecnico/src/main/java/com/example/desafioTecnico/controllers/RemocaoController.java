@@ -0,0 +1,26 @@
+package com.example.desafioTecnico.controllers;
+
+import com.example.desafioTecnico.config.ApiResponse;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
+import com.example.desafioTecnico.services.RemocaoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/remocoes")
+public class RemocaoController {
+    private final RemocaoService service;
+
+    public RemocaoController(RemocaoService service) {
+        this.service = service;
+    }
+
+    /** Andamento da remoção de um autor/gênero, no Location do DELETE; fica disponível por uma hora depois de terminar. */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<RemocaoDTO>> buscar(@PathVariable String id){
+        return ResponseEntity.ok(ApiResponse.ok(service.buscar(id)));
+    }
+}
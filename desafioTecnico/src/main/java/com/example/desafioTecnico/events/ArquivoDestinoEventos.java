@@ -0,0 +1,60 @@
+package com.example.desafioTecnico.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/** Acrescenta cada evento como uma linha JSON (NDJSON) ao arquivo {@code app.outbox.arquivo}. */
+@Component
+@ConditionalOnProperty(name = "app.outbox.arquivo")
+public class ArquivoDestinoEventos implements DestinoEventos, DisposableBean {
+
+    private final ObjectWriter escritorJson;
+    private final BufferedWriter saida;
+
+    public ArquivoDestinoEventos(ObjectMapper objectMapper,
+                                 @Value("${app.outbox.arquivo}") Path arquivo) throws IOException {
+        this.escritorJson = objectMapper.writerFor(EventoPublicado.class);
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        this.saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String nome() {
+        return "arquivo";
+    }
+
+    @Override
+    public void publicar(List<EventoPublicado> eventos) {
+        try {
+            for (EventoPublicado evento : eventos) {
+                saida.write(escritorJson.writeValueAsString(evento));
+                saida.newLine();
+            }
+            // A entrega só é confirmada com o lote inteiro no arquivo
+            saida.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        saida.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.events;
+
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+
+/**
+ * Publicado dentro da transação quando um autor é atualizado ou removido.
+ * {@code atual} é nulo na remoção: uma vez ao marcar o autor e outra, fora de transação,
+ * quando a remoção em segundo plano termina de apagar os livros.
+ */
+public record AutorAlteradoEvent(Long id, AutorResponseDTO atual) {
+}
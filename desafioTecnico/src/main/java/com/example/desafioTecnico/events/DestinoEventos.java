@@ -0,0 +1,17 @@
+package com.example.desafioTecnico.events;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos do outbox; todo bean que implementa esta interface recebe os eventos.
+ * Os lotes chegam sempre pela mesma thread do relay, e a lista só vale durante a chamada.
+ * Retornar confirma a entrega do lote inteiro; uma exceção faz o mesmo lote ser entregue de novo
+ * a este destino depois de uma espera.
+ */
+public interface DestinoEventos {
+
+    /** Nome curto, usado na tag {@code destino} das métricas e no log. */
+    String nome();
+
+    void publicar(List<EventoPublicado> eventos);
+}
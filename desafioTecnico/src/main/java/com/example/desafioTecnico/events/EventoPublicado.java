@@ -0,0 +1,21 @@
+package com.example.desafioTecnico.events;
+
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import com.example.desafioTecnico.models.enums.TipoEvento;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * Evento do outbox como chega aos {@link DestinoEventos}. A entrega é pelo menos uma vez, então
+ * o consumidor descarta repetidos pelo {@code id}. {@code payload} é o JSON do evento de domínio
+ * ({@link LivroAlteradoEvent}, {@link AutorAlteradoEvent} ou {@link GeneroAlteradoEvent}).
+ */
+public record EventoPublicado(Long id, TipoEvento tipo, Long agregadoId, @JsonRawValue String payload,
+                              Instant criadoEm) {
+
+    public static EventoPublicado de(EventoOutbox evento) {
+        return new EventoPublicado(evento.getId(), evento.getTipo(), evento.getAgregadoId(),
+                evento.getPayload(), evento.getCriadoEm());
+    }
+}
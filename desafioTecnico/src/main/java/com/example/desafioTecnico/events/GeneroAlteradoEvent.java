@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.events;
+
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+
+/**
+ * Publicado dentro da transação quando um gênero é atualizado ou removido.
+ * {@code atual} é nulo na remoção: uma vez ao marcar o gênero e outra, fora de transação,
+ * quando a remoção em segundo plano termina de apagar os livros.
+ */
+public record GeneroAlteradoEvent(Long id, GeneroResponseDTO atual) {
+}
@@ -0,0 +1,10 @@
+package com.example.desafioTecnico.events;
+
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+
+/**
+ * Publicado dentro da transação sempre que um livro é criado, atualizado ou removido.
+ * {@code anterior} é nulo na criação e {@code atual} é nulo na remoção.
+ */
+public record LivroAlteradoEvent(LivroResponseDTO anterior, LivroResponseDTO atual) {
+}
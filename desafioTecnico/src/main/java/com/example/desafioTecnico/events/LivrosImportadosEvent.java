@@ -0,0 +1,12 @@
+package com.example.desafioTecnico.events;
+
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+
+import java.util.List;
+
+/**
+ * Publicado dentro da transação de cada lote da importação, no lugar de um
+ * {@link LivroAlteradoEvent} por livro criado, para que os ouvintes tratem o lote de uma vez.
+ */
+public record LivrosImportadosEvent(List<LivroResponseDTO> livros) {
+}
@@ -0,0 +1,8 @@
+package com.example.desafioTecnico.events;
+
+/**
+ * Eventos gravados no outbox num único INSERT, que não devolve os ids: em vez de entrarem na
+ * fila do relay um a um, eles são achados pela varredura depois do commit.
+ */
+public record LoteOutboxGravado(int quantidade) {
+}
@@ -0,0 +1,8 @@
+package com.example.desafioTecnico.events;
+
+/**
+ * Publicado dentro da transação que marcou um autor ou gênero para remoção; a remoção
+ * dos livros só começa depois do commit, quando a marca já é visível para as outras transações.
+ */
+public record RemocaoAgendadaEvent(String remocaoId) {
+}
@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class LoginIndisponivelException extends RuntimeException {
+    public LoginIndisponivelException(String message) {
+        super(message);
+    }
+}
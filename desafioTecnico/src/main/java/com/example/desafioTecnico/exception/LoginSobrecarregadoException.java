@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class LoginSobrecarregadoException extends RuntimeException {
+    public LoginSobrecarregadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class RemocaoNaoEncontradaException extends RuntimeException {
+    public RemocaoNaoEncontradaException(String message) {
+        super(message);
+    }
+}
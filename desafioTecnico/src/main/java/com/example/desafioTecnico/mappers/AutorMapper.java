@@ -0,0 +1,30 @@
+package com.example.desafioTecnico.mappers;
+
+import com.example.desafioTecnico.models.dto.AutorCadastroDTO;
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.entities.Autor;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AutorMapper {
+
+    public Autor toEntity(AutorCadastroDTO dto) {
+        Autor autor = new Autor();
+        atualizar(dto, autor);
+        return autor;
+    }
+
+    /** Copia os campos editáveis do DTO para a entidade; o id nunca é alterado. */
+    public void atualizar(AutorCadastroDTO dto, Autor autor) {
+        autor.setNome(dto.getNome());
+        autor.setBiografia(dto.getBiografia());
+        autor.setDataNascimento(dto.getDataNascimento());
+    }
+
+    public AutorResponseDTO toResponse(Autor autor) {
+        if (autor == null) {
+            return null;
+        }
+        return new AutorResponseDTO(autor.getId(), autor.getNome(), autor.getBiografia(), autor.getDataNascimento());
+    }
+}
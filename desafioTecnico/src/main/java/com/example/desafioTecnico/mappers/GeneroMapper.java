@@ -0,0 +1,29 @@
+package com.example.desafioTecnico.mappers;
+
+import com.example.desafioTecnico.models.dto.GeneroCadastroDTO;
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.entities.Genero;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GeneroMapper {
+
+    public Genero toEntity(GeneroCadastroDTO dto) {
+        Genero genero = new Genero();
+        atualizar(dto, genero);
+        return genero;
+    }
+
+    /** Copia os campos editáveis do DTO para a entidade; o id nunca é alterado. */
+    public void atualizar(GeneroCadastroDTO dto, Genero genero) {
+        genero.setNome(dto.getNome());
+        genero.setDescricao(dto.getDescricao());
+    }
+
+    public GeneroResponseDTO toResponse(Genero genero) {
+        if (genero == null) {
+            return null;
+        }
+        return new GeneroResponseDTO(genero.getId(), genero.getNome(), genero.getDescricao());
+    }
+}
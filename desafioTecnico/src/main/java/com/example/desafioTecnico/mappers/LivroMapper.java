@@ -0,0 +1,50 @@
+package com.example.desafioTecnico.mappers;
+
+import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.entities.Livro;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LivroMapper {
+
+    private final AutorMapper autorMapper;
+    private final GeneroMapper generoMapper;
+
+    public LivroMapper(AutorMapper autorMapper, GeneroMapper generoMapper) {
+        this.autorMapper = autorMapper;
+        this.generoMapper = generoMapper;
+    }
+
+    public Livro toEntity(LivroCadastroDTO dto) {
+        Livro livro = new Livro();
+        atualizar(dto, livro);
+        return livro;
+    }
+
+    /**
+     * Copia os campos simples do DTO para a entidade. Id, autor e gênero não são
+     * tocados: o serviço resolve as associações a partir de autorId/generoId.
+     */
+    public void atualizar(LivroCadastroDTO dto, Livro livro) {
+        livro.setTitulo(dto.getTitulo());
+        livro.setIsbn(dto.getIsbn());
+        livro.setEditora(dto.getEditora());
+        livro.setAnoPublicacao(dto.getAnoPublicacao());
+    }
+
+    public LivroResponseDTO toResponse(Livro livro) {
+        if (livro == null) {
+            return null;
+        }
+        return new LivroResponseDTO(
+                livro.getId(),
+                livro.getTitulo(),
+                livro.getIsbn(),
+                livro.getEditora(),
+                livro.getAnoPublicacao(),
+                generoMapper.toResponse(livro.getGenero()),
+                autorMapper.toResponse(livro.getAutor())
+        );
+    }
+}
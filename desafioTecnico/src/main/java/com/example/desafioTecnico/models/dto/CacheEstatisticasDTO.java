@@ -0,0 +1,25 @@
+package com.example.desafioTecnico.models.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.stat.CacheRegionStatistics;
+
+/** Estatísticas de um cache; {@code -1} onde a fonte não mede o valor (como o Hibernate faz). */
+public record CacheEstatisticasDTO(
+        long tamanho,
+        long hits,
+        long misses,
+        double hitRatio,
+        long evictions
+) {
+    public static CacheEstatisticasDTO de(CacheStats stats, long tamanho) {
+        return new CacheEstatisticasDTO(tamanho, stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    /** Região do cache L2 do Hibernate, que não conta remoções por tamanho ou TTL. */
+    public static CacheEstatisticasDTO de(CacheRegionStatistics stats) {
+        long consultas = stats.getHitCount() + stats.getMissCount();
+        return new CacheEstatisticasDTO(stats.getElementCountInMemory(), stats.getHitCount(), stats.getMissCount(),
+                consultas == 0 ? 1.0 : (double) stats.getHitCount() / consultas, -1);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.desafioTecnico.models.dto;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset).
+ * {@code next} é nulo quando não há mais itens.
+ */
+public record CursorPage<T>(List<T> items, String next) {
+}
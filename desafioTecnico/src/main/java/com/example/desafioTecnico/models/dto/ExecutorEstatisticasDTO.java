@@ -0,0 +1,12 @@
+package com.example.desafioTecnico.models.dto;
+
+public record ExecutorEstatisticasDTO(
+        int threads,
+        int ativas,
+        int fila,
+        int capacidadeFila,
+        long concluidas,
+        long rejeitadas,
+        long expiradas
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.desafioTecnico.models.dto;
+
+public record ImportacaoErroDTO(
+        long linha,
+        String isbn,
+        String mensagem
+) {
+}
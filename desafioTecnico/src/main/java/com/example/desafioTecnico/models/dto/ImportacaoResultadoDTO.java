@@ -0,0 +1,16 @@
+package com.example.desafioTecnico.models.dto;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação em lote. {@code erros} traz no máximo as primeiras
+ * rejeições; {@code errosOmitidos} conta as que ficaram de fora do relatório.
+ */
+public record ImportacaoResultadoDTO(
+        long total,
+        long importados,
+        long rejeitados,
+        List<ImportacaoErroDTO> erros,
+        long errosOmitidos
+) {
+}
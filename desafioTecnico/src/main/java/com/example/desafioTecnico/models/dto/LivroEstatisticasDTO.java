@@ -0,0 +1,19 @@
+package com.example.desafioTecnico.models.dto;
+
+import java.util.List;
+
+/** Contagem de livros do catálogo, por gênero, autor, editora e ano de publicação. */
+public record LivroEstatisticasDTO(
+        long total,
+        List<PorReferencia> porGenero,
+        List<PorReferencia> porAutor,
+        List<PorEditora> porEditora,
+        List<PorAno> porAno
+) {
+    public record PorReferencia(Long id, String nome, long total) { }
+
+    public record PorEditora(String editora, long total) { }
+
+    /** {@code ano} nulo agrupa os livros sem ano de publicação. */
+    public record PorAno(Integer ano, long total) { }
+}
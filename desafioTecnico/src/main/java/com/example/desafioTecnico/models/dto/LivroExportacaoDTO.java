@@ -0,0 +1,18 @@
+package com.example.desafioTecnico.models.dto;
+
+/**
+ * Linha da exportação do catálogo, montada direto na consulta (sem entidades gerenciadas).
+ * Os nomes de coluna batem com os da importação, então um arquivo exportado pode ser reimportado.
+ */
+public record LivroExportacaoDTO(
+        Long id,
+        String titulo,
+        String isbn,
+        String editora,
+        Integer anoPublicacao,
+        Long autorId,
+        String autorNome,
+        Long generoId,
+        String generoNome
+) {
+}
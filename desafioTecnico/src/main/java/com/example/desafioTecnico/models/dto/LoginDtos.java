@@ -0,0 +1,8 @@
+package com.example.desafioTecnico.models.dto;
+
+import java.util.Set;
+
+public class LoginDtos {
+    public record LoginRequest(String username, String password) { }
+    public record LoginResponse(String token, Set<String> roles) { }
+}
@@ -0,0 +1,20 @@
+package com.example.desafioTecnico.models.dto;
+
+import com.example.desafioTecnico.models.enums.EstadoRemocao;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
+
+import java.time.LocalDateTime;
+
+/** Andamento da remoção em segundo plano de um autor ou gênero e dos seus livros. */
+public record RemocaoDTO(
+        String id,
+        TipoRemocao tipo,
+        Long alvoId,
+        EstadoRemocao estado,
+        long livrosRemovidos,
+        Long totalLivros,
+        LocalDateTime criadaEm,
+        LocalDateTime concluidaEm,
+        String erro
+) {
+}
@@ -1,10 +1,14 @@
 package com.example.desafioTecnico.models.entities;
 
+import com.example.desafioTecnico.config.CacheL2Config;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,6 +18,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "Autor")
+@SQLRestriction("removendo_em is null")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheL2Config.AUTOR)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,14 +31,37 @@ public class Autor {
     
     @Column(nullable = false, length = 100)
     private String nome;
+
+    // Gerada pelo banco (V2): lower(nome) com índice, usada nas buscas sem diferenciar maiúsculas
+    @Column(name = "NomeNormalizado", length = 100, insertable = false, updatable = false,
+            columnDefinition = "varchar(100) generated always as (lower(nome))")
+    private String nomeNormalizado;
     
     @Column(columnDefinition = "TEXT")
     private String biografia;
     
     private Date dataNascimento;
 
+    @Version
+    @Column(name = "Versao", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long versao;
+
+    @CreationTimestamp
+    @Column(name = "CriadoEm", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "AtualizadoEm")
+    private LocalDateTime atualizadoEm;
+
+    // Preenchido quando a remoção em segundo plano começa; a partir daí a linha some das leituras
+    @Column(name = "RemovendoEm")
+    private LocalDateTime removendoEm;
+
     
-    @OneToMany(mappedBy = "autor", cascade = CascadeType.ALL)
+    // Sem cascade: a remoção apaga os livros em blocos (RemocaoService), não um a um pelo Hibernate
+    @OneToMany(mappedBy = "autor")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheL2Config.AUTOR_LIVROS)
     private List<Livro> livros = new ArrayList<>();
 
 }
\ No newline at end of file
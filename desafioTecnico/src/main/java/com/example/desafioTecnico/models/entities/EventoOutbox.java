@@ -0,0 +1,42 @@
+package com.example.desafioTecnico.models.entities;
+
+import com.example.desafioTecnico.models.enums.TipoEvento;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** Evento de alteração do catálogo ainda não entregue; a linha é apagada depois da entrega. */
+@Entity
+@Table(name = "EventoOutbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class EventoOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "Tipo", nullable = false, length = 20)
+    private TipoEvento tipo;
+
+    @Column(name = "AgregadoId", nullable = false)
+    private Long agregadoId;
+
+    // JSON do evento de domínio que originou a linha
+    @Column(name = "Payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "CriadoEm", nullable = false)
+    private Instant criadoEm;
+
+    public EventoOutbox(TipoEvento tipo, Long agregadoId, String payload, Instant criadoEm) {
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.payload = payload;
+        this.criadoEm = criadoEm;
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.desafioTecnico.models.entities;
 
+import com.example.desafioTecnico.config.CacheL2Config;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -12,6 +16,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "Genero")
+@SQLRestriction("removendo_em is null")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheL2Config.GENERO)
 @Getter
 @Setter
 public class Genero {
@@ -23,10 +30,33 @@ public class Genero {
     @Column(nullable = false, length = 100, unique = true)
     private String nome;
 
+    // Gerada pelo banco (V2): lower(nome) com índice, usada nas buscas sem diferenciar maiúsculas
+    @Column(name = "NomeNormalizado", length = 100, insertable = false, updatable = false,
+            columnDefinition = "varchar(100) generated always as (lower(nome))")
+    private String nomeNormalizado;
+
     @Column(columnDefinition = "TEXT")
     private String descricao;
 
-    @OneToMany(mappedBy = "genero", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Version
+    @Column(name = "Versao", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long versao;
+
+    @CreationTimestamp
+    @Column(name = "CriadoEm", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "AtualizadoEm")
+    private LocalDateTime atualizadoEm;
+
+    // Preenchido quando a remoção em segundo plano começa; a partir daí a linha some das leituras
+    @Column(name = "RemovendoEm")
+    private LocalDateTime removendoEm;
+
+    // Sem cascade: a remoção apaga os livros em blocos (RemocaoService), não um a um pelo Hibernate
+    @OneToMany(mappedBy = "genero")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheL2Config.GENERO_LIVROS)
     private List<Livro> livros = new ArrayList<>();
 
 
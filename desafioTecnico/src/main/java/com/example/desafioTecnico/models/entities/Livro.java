@@ -1,15 +1,28 @@
 package com.example.desafioTecnico.models.entities;
 
+import com.example.desafioTecnico.config.CacheL2Config;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Livro")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheL2Config.LIVRO)
+@NaturalIdCache(region = CacheL2Config.LIVRO_ISBN)
+@Table(name = "Livro", indexes = {
+        @Index(name = "idx_livro_autor_id", columnList = "AutorId, id"),
+        @Index(name = "idx_livro_genero_id", columnList = "GeneroId, id")
+})
 @Getter
 @Setter
 public class Livro {
@@ -21,6 +34,9 @@ public class Livro {
     @Column(nullable = false, length = 255)
     private String titulo;
 
+    // Sempre na forma canônica (Isbn.normalizar): ISBN-13 só com dígitos, buscado por igualdade no
+    // índice único. Natural id mutável: a atualização pode trocar o ISBN e o Hibernate acompanha no cache.
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true, length = 20)
     private String isbn;
 
@@ -38,4 +54,16 @@ public class Livro {
     @JoinColumn(name = "AutorId", nullable = false)
     private Autor autor;
 
+    @Version
+    @Column(name = "Versao", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long versao;
+
+    @CreationTimestamp
+    @Column(name = "CriadoEm", updatable = false)
+    private LocalDateTime criadoEm;
+
+    @UpdateTimestamp
+    @Column(name = "AtualizadoEm")
+    private LocalDateTime atualizadoEm;
+
 }
\ No newline at end of file
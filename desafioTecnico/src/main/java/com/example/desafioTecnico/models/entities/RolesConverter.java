@@ -0,0 +1,43 @@
+package com.example.desafioTecnico.models.entities;
+
+import com.example.desafioTecnico.models.enums.Role;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Guarda as roles de um usuário como bits numa coluna inteira da própria tabela
+ * (LEITURA = 1, ESCRITA = 2), evitando a tabela e o join de uma coleção de elementos.
+ * O bit de cada role é a sua posição no enum: novas roles entram sempre no final.
+ */
+@Converter
+public class RolesConverter implements AttributeConverter<Set<Role>, Integer> {
+
+    private static final Role[] ROLES = Role.values();
+
+    @Override
+    public Integer convertToDatabaseColumn(Set<Role> roles) {
+        int bits = 0;
+        if (roles != null) {
+            for (Role role : roles) {
+                bits |= 1 << role.ordinal();
+            }
+        }
+        return bits;
+    }
+
+    @Override
+    public Set<Role> convertToEntityAttribute(Integer bits) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        if (bits != null) {
+            for (Role role : ROLES) {
+                if ((bits & (1 << role.ordinal())) != 0) {
+                    roles.add(role);
+                }
+            }
+        }
+        return roles;
+    }
+}
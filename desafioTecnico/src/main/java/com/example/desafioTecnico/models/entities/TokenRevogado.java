@@ -0,0 +1,34 @@
+package com.example.desafioTecnico.models.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/** JWT revogado antes do "exp". A linha só é útil até {@code expiraEm} e é removida depois. */
+@Entity
+@Table(name = "TokenRevogado", indexes = {
+        @Index(name = "idx_token_revogado_revogado_em", columnList = "RevogadoEm"),
+        @Index(name = "idx_token_revogado_expira_em", columnList = "ExpiraEm")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevogado {
+    @Id
+    @Column(name = "Jti", length = 36)
+    private String jti;
+
+    @Column(name = "Username", nullable = false)
+    private String username;
+
+    @Column(name = "ExpiraEm", nullable = false)
+    private Instant expiraEm;
+
+    @Column(name = "RevogadoEm", nullable = false)
+    private Instant revogadoEm;
+}
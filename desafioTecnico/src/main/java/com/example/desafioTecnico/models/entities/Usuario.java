@@ -20,8 +20,8 @@ public class Usuario {
     private String username;
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = RolesConverter.class)
+    @Column(name = "Roles", nullable = false, columnDefinition = "int not null default 0")
     private Set<Role> roles;
 
     public Set<String> getRolesAsString() {
@@ -0,0 +1,7 @@
+package com.example.desafioTecnico.models.enums;
+public enum EstadoRemocao {
+    PENDENTE,
+    EXECUTANDO,
+    CONCLUIDA,
+    FALHOU
+}
@@ -0,0 +1,5 @@
+package com.example.desafioTecnico.models.enums;
+public enum FormatoArquivo {
+    NDJSON,
+    CSV
+}
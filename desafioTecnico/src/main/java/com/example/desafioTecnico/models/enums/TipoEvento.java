@@ -0,0 +1,12 @@
+package com.example.desafioTecnico.models.enums;
+
+/** Tipo dos eventos do outbox; autores e gêneros só geram evento ao serem atualizados ou removidos. */
+public enum TipoEvento {
+    LIVRO_CRIADO,
+    LIVRO_ATUALIZADO,
+    LIVRO_REMOVIDO,
+    AUTOR_ATUALIZADO,
+    AUTOR_REMOVIDO,
+    GENERO_ATUALIZADO,
+    GENERO_REMOVIDO
+}
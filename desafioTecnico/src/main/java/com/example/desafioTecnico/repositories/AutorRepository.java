@@ -1,10 +1,55 @@
 package com.example.desafioTecnico.repositories;
 
 import com.example.desafioTecnico.models.entities.Autor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface AutorRepository extends JpaRepository<Autor, Long> {
-    boolean existsByNomeIgnoreCase(String nome);
+    // Compara a coluna gerada em minúsculas, que tem índice; lower(nome) = lower(?) não usaria
+    @Query("select case when count(a) > 0 then true else false end from Autor a where a.nomeNormalizado = lower(:nome)")
+    boolean existsByNomeIgnoreCase(@Param("nome") String nome);
+
+    @Query("select a.versao from Autor a where a.id = :id")
+    Optional<Long> findVersaoById(@Param("id") Long id);
+
+    @Query("select count(a) as total, max(a.atualizadoEm) as ultimaAtualizacao from Autor a")
+    VersaoColecao findVersaoColecao();
+
+    @Query("select a from Autor a where a.id > :afterId order by a.id")
+    List<Autor> findPaginaPorId(@Param("afterId") long afterId, Pageable limite);
+
+    @Query("select a from Autor a order by a.nome, a.id")
+    List<Autor> findPrimeiraPaginaPorNome(Pageable limite);
+
+    @Query("""
+            select a from Autor a
+            where a.nome > :nome or (a.nome = :nome and a.id > :afterId)
+            order by a.nome, a.id""")
+    List<Autor> findPaginaPorNome(@Param("nome") String nome,
+                                  @Param("afterId") long afterId,
+                                  Pageable limite);
+
+    // Remoção em segundo plano (RemocaoService): a marca esconde a linha das leituras na hora,
+    // pela restrição removendo_em is null da entidade; por isso as demais consultas são nativas.
+
+    @Modifying
+    @Query("update Autor a set a.removendoEm = :agora where a.id = :id and a.removendoEm is null")
+    int marcarRemocao(@Param("id") Long id, @Param("agora") LocalDateTime agora);
+
+    @Query(value = "select count(*) from autor where id = :id and removendo_em is not null", nativeQuery = true)
+    long countEmRemocao(@Param("id") Long id);
+
+    @Query(value = "select id from autor where removendo_em is not null", nativeQuery = true)
+    List<Long> findIdsEmRemocao();
+
+    @Modifying
+    @Query(value = "delete from autor where id = :id and removendo_em is not null", nativeQuery = true)
+    int deleteMarcado(@Param("id") Long id);
 }
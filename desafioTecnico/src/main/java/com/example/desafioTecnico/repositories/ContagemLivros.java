@@ -0,0 +1,28 @@
+package com.example.desafioTecnico.repositories;
+
+/** Projeções dos GROUP BY que alimentam as estatísticas do catálogo. */
+public final class ContagemLivros {
+
+    private ContagemLivros() {
+    }
+
+    public interface PorReferencia {
+        Long getId();
+
+        String getNome();
+
+        Long getTotal();
+    }
+
+    public interface PorEditora {
+        String getEditora();
+
+        Long getTotal();
+    }
+
+    public interface PorAno {
+        Integer getAno();
+
+        Long getTotal();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+
+import java.util.List;
+
+/** Gravação de vários eventos com um INSERT de várias linhas; a PK IDENTITY impede o batch do Hibernate. */
+public interface EventoOutboxEmLoteRepository {
+
+    /** Os ids gerados não voltam para as entidades. */
+    void inserirEmLote(List<EventoOutbox> eventos);
+}
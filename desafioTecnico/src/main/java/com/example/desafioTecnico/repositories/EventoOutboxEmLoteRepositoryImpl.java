@@ -0,0 +1,38 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.Collections;
+import java.util.List;
+
+class EventoOutboxEmLoteRepositoryImpl implements EventoOutboxEmLoteRepository {
+
+    // 4 parâmetros por linha: fica longe do limite de 65535 do MySQL
+    static final int MAX_LINHAS_POR_INSERT = 1000;
+
+    private final EntityManager entityManager;
+
+    EventoOutboxEmLoteRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void inserirEmLote(List<EventoOutbox> eventos) {
+        for (int inicio = 0; inicio < eventos.size(); inicio += MAX_LINHAS_POR_INSERT) {
+            List<EventoOutbox> parte = eventos.subList(inicio, Math.min(eventos.size(), inicio + MAX_LINHAS_POR_INSERT));
+            Query insert = entityManager.createNativeQuery(
+                    "insert into evento_outbox (tipo, agregado_id, payload, criado_em) values "
+                            + String.join(", ", Collections.nCopies(parte.size(), "(?, ?, ?, ?)")));
+            int posicao = 1;
+            for (EventoOutbox evento : parte) {
+                insert.setParameter(posicao++, evento.getTipo().name());
+                insert.setParameter(posicao++, evento.getAgregadoId());
+                insert.setParameter(posicao++, evento.getPayload());
+                insert.setParameter(posicao++, evento.getCriadoEm());
+            }
+            insert.executeUpdate();
+        }
+    }
+}
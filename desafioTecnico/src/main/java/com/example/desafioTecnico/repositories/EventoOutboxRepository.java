@@ -0,0 +1,27 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long>, EventoOutboxEmLoteRepository {
+
+    /** Eventos ainda não entregues, mais antigos primeiro (pela PK). */
+    @Query("select e from EventoOutbox e order by e.id")
+    List<EventoOutbox> findPendentes(Pageable limite);
+
+    /** Gravação do evento pendente mais antigo; {@code null} com a tabela vazia. */
+    @Query("select min(e.criadoEm) from EventoOutbox e")
+    Instant findCriadoEmMaisAntigo();
+
+    @Modifying
+    @Query("delete from EventoOutbox e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,10 +1,55 @@
 package com.example.desafioTecnico.repositories;
 
 import com.example.desafioTecnico.models.entities.Genero;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface GeneroRepository extends JpaRepository<Genero, Long> {
-    boolean existsByNomeIgnoreCase(String nome);
+    // Compara a coluna gerada em minúsculas, que tem índice; lower(nome) = lower(?) não usaria
+    @Query("select case when count(g) > 0 then true else false end from Genero g where g.nomeNormalizado = lower(:nome)")
+    boolean existsByNomeIgnoreCase(@Param("nome") String nome);
+
+    @Query("select g.versao from Genero g where g.id = :id")
+    Optional<Long> findVersaoById(@Param("id") Long id);
+
+    @Query("select count(g) as total, max(g.atualizadoEm) as ultimaAtualizacao from Genero g")
+    VersaoColecao findVersaoColecao();
+
+    @Query("select g from Genero g where g.id > :afterId order by g.id")
+    List<Genero> findPaginaPorId(@Param("afterId") long afterId, Pageable limite);
+
+    @Query("select g from Genero g order by g.nome, g.id")
+    List<Genero> findPrimeiraPaginaPorNome(Pageable limite);
+
+    @Query("""
+            select g from Genero g
+            where g.nome > :nome or (g.nome = :nome and g.id > :afterId)
+            order by g.nome, g.id""")
+    List<Genero> findPaginaPorNome(@Param("nome") String nome,
+                                   @Param("afterId") long afterId,
+                                   Pageable limite);
+
+    // Remoção em segundo plano (RemocaoService): a marca esconde a linha das leituras na hora,
+    // pela restrição removendo_em is null da entidade; por isso as demais consultas são nativas.
+
+    @Modifying
+    @Query("update Genero g set g.removendoEm = :agora where g.id = :id and g.removendoEm is null")
+    int marcarRemocao(@Param("id") Long id, @Param("agora") LocalDateTime agora);
+
+    @Query(value = "select count(*) from genero where id = :id and removendo_em is not null", nativeQuery = true)
+    long countEmRemocao(@Param("id") Long id);
+
+    @Query(value = "select id from genero where removendo_em is not null", nativeQuery = true)
+    List<Long> findIdsEmRemocao();
+
+    @Modifying
+    @Query(value = "delete from genero where id = :id and removendo_em is not null", nativeQuery = true)
+    int deleteMarcado(@Param("id") Long id);
 }
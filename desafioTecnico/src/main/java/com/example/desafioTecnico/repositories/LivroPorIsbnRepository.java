@@ -0,0 +1,12 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.Livro;
+
+import java.util.Optional;
+
+/** Busca pelo natural id, que o Spring Data não gera: passa pelos caches L2 de ISBN e de livro. */
+public interface LivroPorIsbnRepository {
+
+    /** {@code isbn} já na forma canônica; sem cache, é um SELECT pelo índice único. */
+    Optional<Livro> findPorIsbn(String isbn);
+}
@@ -0,0 +1,21 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.Livro;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class LivroPorIsbnRepositoryImpl implements LivroPorIsbnRepository {
+
+    private final EntityManager entityManager;
+
+    LivroPorIsbnRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Livro> findPorIsbn(String isbn) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Livro.class).loadOptional(isbn);
+    }
+}
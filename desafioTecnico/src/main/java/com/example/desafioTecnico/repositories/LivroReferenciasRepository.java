@@ -0,0 +1,26 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+
+import java.util.Optional;
+
+/**
+ * O que o cadastro e a atualização de livro leem antes de gravar, em no máximo uma ida ao banco:
+ * com todas as entidades no cache L2 elas saem de lá; com qualquer uma fora, um único SELECT traz
+ * tudo junto. Vazio quando alguma não existe; só então o serviço consulta qual faltou.
+ */
+public interface LivroReferenciasRepository {
+
+    record Referencias(Autor autor, Genero genero) {
+    }
+
+    record ParaAtualizar(Livro livro, Autor autor, Genero genero) {
+    }
+
+    Optional<Referencias> findReferencias(Long autorId, Long generoId);
+
+    /** O livro vem com o autor e o gênero atuais, que a resposta anterior à alteração usa. */
+    Optional<ParaAtualizar> findParaAtualizar(Long id, Long autorId, Long generoId);
+}
@@ -0,0 +1,64 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.Optional;
+
+class LivroReferenciasRepositoryImpl implements LivroReferenciasRepository {
+
+    private final EntityManager entityManager;
+
+    LivroReferenciasRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<Referencias> findReferencias(Long autorId, Long generoId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        if (cache.contains(Autor.class, autorId) && cache.contains(Genero.class, generoId)) {
+            Autor autor = entityManager.find(Autor.class, autorId);
+            Genero genero = entityManager.find(Genero.class, generoId);
+            return autor == null || genero == null ? Optional.empty() : Optional.of(new Referencias(autor, genero));
+        }
+        // Uma consulta nunca passa pelo cache de entidades: só vale a pena com alguma fora dele
+        List<Object[]> linhas = entityManager.createQuery("""
+                        select a, g from Autor a, Genero g
+                        where a.id = :autorId and g.id = :generoId""", Object[].class)
+                .setParameter("autorId", autorId)
+                .setParameter("generoId", generoId)
+                .getResultList();
+        return linhas.stream()
+                .findFirst()
+                .map(linha -> new Referencias((Autor) linha[0], (Genero) linha[1]));
+    }
+
+    @Override
+    public Optional<ParaAtualizar> findParaAtualizar(Long id, Long autorId, Long generoId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        if (cache.contains(Livro.class, id) && cache.contains(Autor.class, autorId)
+                && cache.contains(Genero.class, generoId)) {
+            Livro livro = entityManager.find(Livro.class, id);
+            Autor autor = entityManager.find(Autor.class, autorId);
+            Genero genero = entityManager.find(Genero.class, generoId);
+            return livro == null || autor == null || genero == null
+                    ? Optional.empty()
+                    : Optional.of(new ParaAtualizar(livro, autor, genero));
+        }
+        List<Object[]> linhas = entityManager.createQuery("""
+                        select l, a, g
+                        from Livro l join fetch l.autor join fetch l.genero, Autor a, Genero g
+                        where l.id = :id and a.id = :autorId and g.id = :generoId""", Object[].class)
+                .setParameter("id", id)
+                .setParameter("autorId", autorId)
+                .setParameter("generoId", generoId)
+                .getResultList();
+        return linhas.stream()
+                .findFirst()
+                .map(linha -> new ParaAtualizar((Livro) linha[0], (Autor) linha[1], (Genero) linha[2]));
+    }
+}
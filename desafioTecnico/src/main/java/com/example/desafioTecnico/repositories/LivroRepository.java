@@ -1,14 +1,154 @@
 
 package com.example.desafioTecnico.repositories;
 
+import com.example.desafioTecnico.models.dto.LivroExportacaoDTO;
 import com.example.desafioTecnico.models.entities.Livro;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface LivroRepository extends JpaRepository<Livro, Long> {
-    boolean existsByIsbnIgnoreCase(String isbn);
+public interface LivroRepository extends JpaRepository<Livro, Long>, LivroPorIsbnRepository,
+        LivroReferenciasRepository {
+    // O ISBN é gravado na forma canônica (Isbn.normalizar), então toda busca por ele é igualdade
+    // no índice único, com o parâmetro normalizado do mesmo jeito.
 
-    boolean existsByIsbnIgnoreCaseAndIdNot(String isbn, Long id);
+    // Cadastro e atualização não consultam antes: o índice único responde pelo ISBN duplicado.
+
+    // Importação em lote: verifica de uma vez quais ISBNs (já normalizados) existem.
+    @Query("select l.isbn from Livro l where l.isbn in :isbns")
+    List<String> findIsbnsExistentes(@Param("isbns") Collection<String> isbns);
+
+    // Leituras que viram LivroResponseDTO trazem autor e gênero no mesmo SELECT,
+    // evitando duas consultas extras por livro ao mapear as associações LAZY.
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    Optional<Livro> findDetalhadoById(Long id);
+
+    // O JSON de um livro inclui autor e gênero, então a versão dele combina as três entidades.
+
+    interface VersoesLivro {
+        Long getLivro();
+
+        Long getAutor();
+
+        Long getGenero();
+    }
+
+    @Query("""
+            select l.versao as livro, a.versao as autor, g.versao as genero
+            from Livro l join l.autor a join l.genero g
+            where l.id = :id""")
+    Optional<VersoesLivro> findVersoesById(@Param("id") Long id);
+
+    @Query("select count(l) as total, max(l.atualizadoEm) as ultimaAtualizacao from Livro l")
+    VersaoColecao findVersaoColecao();
+
+    // Estatísticas: lidas uma vez na subida, depois mantidas em memória pelos eventos.
+
+    @Query("select g.id as id, g.nome as nome, count(l) as total from Livro l join l.genero g group by g.id, g.nome")
+    List<ContagemLivros.PorReferencia> contarPorGenero();
+
+    @Query("select a.id as id, a.nome as nome, count(l) as total from Livro l join l.autor a group by a.id, a.nome")
+    List<ContagemLivros.PorReferencia> contarPorAutor();
+
+    @Query("select l.editora as editora, count(l) as total from Livro l group by l.editora")
+    List<ContagemLivros.PorEditora> contarPorEditora();
+
+    @Query("select l.anoPublicacao as ano, count(l) as total from Livro l group by l.anoPublicacao")
+    List<ContagemLivros.PorAno> contarPorAno();
+
+    // Paginação por cursor (keyset): o Pageable só limita a quantidade de linhas.
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("select l from Livro l where l.id > :afterId order by l.id")
+    List<Livro> findPaginaPorId(@Param("afterId") long afterId, Pageable limite);
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("select l from Livro l order by l.titulo, l.id")
+    List<Livro> findPrimeiraPaginaPorTitulo(Pageable limite);
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("""
+            select l from Livro l
+            where l.titulo > :titulo or (l.titulo = :titulo and l.id > :afterId)
+            order by l.titulo, l.id""")
+    List<Livro> findPaginaPorTitulo(@Param("titulo") String titulo,
+                                    @Param("afterId") long afterId,
+                                    Pageable limite);
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("select l from Livro l order by l.anoPublicacao asc nulls first, l.id")
+    List<Livro> findPrimeiraPaginaPorAno(Pageable limite);
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("""
+            select l from Livro l
+            where l.anoPublicacao > :ano or (l.anoPublicacao = :ano and l.id > :afterId)
+            order by l.anoPublicacao asc nulls first, l.id""")
+    List<Livro> findPaginaPorAno(@Param("ano") Integer ano,
+                                 @Param("afterId") long afterId,
+                                 Pageable limite);
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("""
+            select l from Livro l
+            where l.anoPublicacao is not null or l.id > :afterId
+            order by l.anoPublicacao asc nulls first, l.id""")
+    List<Livro> findPaginaPorAnoAposNulos(@Param("afterId") long afterId, Pageable limite);
+
+    // Livros de um autor / gênero, paginados por id. Os índices (AutorId, id) e (GeneroId, id)
+    // atendem filtro, cursor e ordenação; as coleções LAZY de Autor e Genero não são usadas.
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("select l from Livro l where l.autor.id = :autorId and l.id > :afterId order by l.id")
+    List<Livro> findPaginaPorAutor(@Param("autorId") Long autorId,
+                                   @Param("afterId") long afterId,
+                                   Pageable limite);
+
+    @EntityGraph(attributePaths = {"autor", "genero"})
+    @Query("select l from Livro l where l.genero.id = :generoId and l.id > :afterId order by l.id")
+    List<Livro> findPaginaPorGenero(@Param("generoId") Long generoId,
+                                    @Param("afterId") long afterId,
+                                    Pageable limite);
+
+    // Contagem só pelo índice, sem join com Autor/Genero.
+    long countByAutorId(Long autorId);
+
+    long countByGeneroId(Long generoId);
+
+    // Exportação: projeção montada na consulta (nada entra no contexto de persistência) e lida
+    // em streaming pelo driver; fetch size Integer.MIN_VALUE é o modo linha a linha do Connector/J.
+    // Precisa de transação aberta e o Stream deve ser fechado por quem consome.
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("""
+            select new com.example.desafioTecnico.models.dto.LivroExportacaoDTO(
+                l.id, l.titulo, l.isbn, l.editora, l.anoPublicacao, a.id, a.nome, g.id, g.nome)
+            from Livro l join l.autor a join l.genero g
+            order by l.id""")
+    Stream<LivroExportacaoDTO> streamExportacao();
+
+    // Remoção de autor/gênero em blocos: ids do próximo bloco pelos índices (AutorId, id) e
+    // (GeneroId, id) e um DELETE por bloco, em vez do cascade que apagava livro a livro.
+
+    @Query("select l.id from Livro l where l.autor.id = :autorId order by l.id")
+    List<Long> findIdsPorAutor(@Param("autorId") Long autorId, Pageable limite);
+
+    @Query("select l.id from Livro l where l.genero.id = :generoId order by l.id")
+    List<Long> findIdsPorGenero(@Param("generoId") Long generoId, Pageable limite);
+
+    @Modifying
+    @Query("delete from Livro l where l.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,21 @@
+package com.example.desafioTecnico.repositories;
+
+import com.example.desafioTecnico.models.entities.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    List<TokenRevogado> findByRevogadoEmAfterAndExpiraEmAfter(Instant revogadoEm, Instant expiraEm);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevogado t where t.expiraEm <= :agora")
+    int deleteExpirados(@Param("agora") Instant agora);
+}
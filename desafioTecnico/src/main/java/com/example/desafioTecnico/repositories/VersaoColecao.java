@@ -0,0 +1,13 @@
+package com.example.desafioTecnico.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção usada para ETags de listagens: qualquer inserção ou atualização muda
+ * {@code ultimaAtualizacao} e qualquer exclusão muda {@code total}.
+ */
+public interface VersaoColecao {
+    Long getTotal();
+
+    LocalDateTime getUltimaAtualizacao();
+}
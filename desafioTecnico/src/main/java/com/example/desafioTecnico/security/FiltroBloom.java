@@ -0,0 +1,79 @@
+package com.example.desafioTecnico.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de tamanho fixo para strings. Responde "talvez" ou "com certeza não";
+ * nunca dá falso negativo. As k posições saem de dois hashes combinados (h1 + i*h2),
+ * então cada consulta calcula um único hash de 64 bits. Leituras e escritas sem lock.
+ */
+final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        int n = Math.max(1, capacidade);
+        double m = -n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2));
+        int palavras = (int) Math.max(1L, Math.min((long) Math.ceil(m / 64), Integer.MAX_VALUE / 64));
+        this.bits = new AtomicLongArray(palavras);
+        this.numBits = palavras * 64L;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    void adicionar(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = posicao(h1 + i * h2);
+            long mascara = 1L << bit;
+            int palavra = (int) (bit >>> 6);
+            long atual;
+            do {
+                atual = bits.get(palavra);
+            } while ((atual & mascara) == 0 && !bits.compareAndSet(palavra, atual, atual | mascara));
+        }
+    }
+
+    boolean talvezContenha(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashes; i++) {
+            long bit = posicao(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int numHashes() {
+        return numHashes;
+    }
+
+    long numBits() {
+        return numBits;
+    }
+
+    private long posicao(int combinado) {
+        return (combinado < 0 ? ~combinado : combinado) % numBits;
+    }
+
+    // FNV-1a de 64 bits seguido do finalizador do MurmurHash3 para espalhar os bits altos
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
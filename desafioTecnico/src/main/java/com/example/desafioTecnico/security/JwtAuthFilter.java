@@ -4,6 +4,8 @@ import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,7 +19,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -27,10 +33,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String ROLE_PREFIX = "ROLE_";
 
+    /** Resultado da autenticação por Bearer token, usado como tag "outcome" do timer auth.jwt. */
+    enum Resultado { OK, EXPIRED, REVOKED, INVALID, ERROR }
+
     private final JwtService jwtService;
+    private final ListaRevogacao listaRevogacao;
+    private final Map<Resultado, Timer> timers = new EnumMap<>(Resultado.class);
 
-    public JwtAuthFilter(JwtService jwtService) {
+    public JwtAuthFilter(JwtService jwtService, ListaRevogacao listaRevogacao, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
+        this.listaRevogacao = listaRevogacao;
+        for (Resultado resultado : Resultado.values()) {
+            timers.put(resultado, Timer.builder("auth.jwt")
+                    .description("Autenticação de requisições com Bearer token no JwtAuthFilter")
+                    .tag("outcome", resultado.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
     }
 
     @Override
@@ -38,6 +57,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        long inicio = 0L;
         try {
             String authHeader = request.getHeader(AUTH_HEADER);
 
@@ -48,22 +68,32 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
             String token = authHeader.substring(BEARER_PREFIX.length());
 
-
+            inicio = System.nanoTime();
             authenticateRequest(request, token);
+            registrar(Resultado.OK, inicio);
 
         } catch (ExpiredJwtException ex) {
+            registrar(Resultado.EXPIRED, inicio);
             log.warn("Token expirado: {}", ex.getMessage());
             sendUnauthorized(response, "Token expirado");
             return;
+        } catch (TokenRevogadoException ex) {
+            registrar(Resultado.REVOKED, inicio);
+            log.warn("Token revogado: {}", ex.getMessage());
+            sendUnauthorized(response, "Token revogado");
+            return;
         } catch (SignatureException | MalformedJwtException ex) {
+            registrar(Resultado.INVALID, inicio);
             log.warn("Token inválido: {}", ex.getMessage());
             sendUnauthorized(response, "Token inválido");
             return;
         } catch (JwtException ex) {
+            registrar(Resultado.INVALID, inicio);
             log.warn("Erro ao processar JWT: {}", ex.getMessage());
             sendUnauthorized(response, "Falha na autenticação");
             return;
         } catch (Exception ex) {
+            registrar(Resultado.ERROR, inicio);
             log.error("Erro de autenticação", ex);
             sendUnauthorized(response, "Falha na autenticação");
             return;
@@ -78,8 +108,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String username = jwtService.extractUsername(token);
-        Set<String> roles = jwtService.extractRoles(token); // ex.: ["LEITURA"] ou ["ESCRITA"]
+        // Uma única verificação de assinatura por requisição (ou nenhuma, se o token estiver em cache)
+        VerifiedToken verified = jwtService.verify(token);
+        // Revogação consultada em memória: não revogados nem chegam ao conjunto exato
+        if (listaRevogacao.revogado(verified.jti())) {
+            throw new TokenRevogadoException("jti " + verified.jti());
+        }
+        String username = verified.username();
+        Set<String> roles = verified.roles(); // ex.: ["LEITURA"] ou ["ESCRITA"]
 
         if (username == null) {
             return;
@@ -104,6 +140,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
     }
 
+    // Só requisições com Bearer token entram na métrica (inicio > 0)
+    private void registrar(Resultado resultado, long inicio) {
+        if (inicio != 0L) {
+            timers.get(resultado).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
     private void sendUnauthorized(HttpServletResponse response, String message) throws IOException {
         response.setContentType("application/json");
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
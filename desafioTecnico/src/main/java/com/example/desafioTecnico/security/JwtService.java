@@ -1,30 +1,54 @@
 package com.example.desafioTecnico.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.*;
 
 @Service
-public class JwtService {
+public class JwtService implements MeterBinder {
 
     private final SecretKey secretKey;
     private final long expirationMs;
+    private final JwtParser parser;
+
+    // Tokens já verificados, indexados pelo SHA-256 do token. Cada entrada expira
+    // junto com o "exp" do próprio token, então o cache nunca aceita um token vencido.
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
     public JwtService(
             @Value("${app.jwt.secret-base64}") String base64Secret,
-            @Value("${app.jwt.expiration-ms:3600000}") long expirationMs
+            @Value("${app.jwt.expiration-ms:3600000}") long expirationMs,
+            @Value("${app.jwt.cache.max-size:10000}") long cacheMaxSize
     ) {
         byte[] bytes = Base64.getDecoder().decode(base64Secret);
         this.secretKey = Keys.hmacShaKeyFor(bytes);
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ExpiraNoExp())
+                .recordStats()
+                .build();
     }
 
     public String generateToken(String username, Set<String> roles) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
@@ -33,15 +57,81 @@ public class JwtService {
                 .compact();
     }
 
-    public String extractUsername(String token) { return getClaims(token).getSubject(); }
+    /**
+     * Verifica assinatura e validade do token uma única vez e devolve usuário e roles juntos.
+     * Tokens válidos ficam em cache até o seu "exp"; falhas de verificação nunca são cacheadas.
+     */
+    public VerifiedToken verify(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = parse(token);
+        if (verified.expiration() != null && verified.expiration().isAfter(Instant.now())) {
+            verifiedTokens.put(key, verified);
+        }
+        return verified;
+    }
+
+    public String extractUsername(String token) { return verify(token).username(); }
 
-    @SuppressWarnings("unchecked")
     public Set<String> extractRoles(String token) {
-        List<String> roles = getClaims(token).get("roles", List.class);
-        return new HashSet<>(roles == null ? Collections.emptyList() : roles);
+        return verify(token).roles();
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+    public CacheStats cacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    public long cacheSize() {
+        return verifiedTokens.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, "jwtVerificados");
+    }
+
+    @SuppressWarnings("unchecked")
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        List<String> roles = claims.get("roles", List.class);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(
+                claims.getSubject(),
+                roles == null ? Set.of() : Set.copyOf(roles),
+                expiration == null ? null : expiration.toInstant(),
+                claims.getId()
+        );
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex);
+        }
+    }
+
+    private static final class ExpiraNoExp implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long millis = value.expiration().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0L, millis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.example.desafioTecnico.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens revogados (por {@code jti}) ainda dentro da validade, consultados a cada requisição
+ * autenticada sem ir ao banco. Um filtro de Bloom responde primeiro: para tokens não revogados,
+ * o caso comum, a resposta é "não" sem tocar no mapa; só um "talvez" confere o conjunto exato.
+ * Bloom não remove itens, então ele é reconstruído a partir do conjunto quando entradas vencem
+ * ou quando o número de revogações passa da capacidade planejada.
+ */
+@Component
+public class ListaRevogacao implements MeterBinder {
+
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+
+    private final int capacidadeMinima;
+    private final Map<String, Instant> revogados = new ConcurrentHashMap<>();
+    private volatile FiltroBloom filtro;
+    private int capacidade;
+
+    public ListaRevogacao(@Value("${app.jwt.revogacao.capacidade:10000}") int capacidade) {
+        this.capacidadeMinima = Math.max(1, capacidade);
+        this.capacidade = capacidadeMinima;
+        this.filtro = new FiltroBloom(capacidadeMinima, TAXA_FALSO_POSITIVO);
+    }
+
+    public boolean revogado(String jti) {
+        return jti != null && filtro.talvezContenha(jti) && revogados.containsKey(jti);
+    }
+
+    /** Registra a revogação até {@code expiraEm}; tokens já vencidos são ignorados. */
+    public synchronized void adicionar(String jti, Instant expiraEm) {
+        if (!expiraEm.isAfter(Instant.now()) || revogados.put(jti, expiraEm) != null) {
+            return;
+        }
+        if (revogados.size() > capacidade) {
+            reconstruir();
+        } else {
+            filtro.adicionar(jti);
+        }
+    }
+
+    /** Remove as revogações de tokens que já venceram e devolve quantas saíram. */
+    public synchronized int removerExpirados(Instant agora) {
+        int antes = revogados.size();
+        revogados.values().removeIf(expiraEm -> !expiraEm.isAfter(agora));
+        int removidos = antes - revogados.size();
+        if (removidos > 0) {
+            reconstruir();
+        }
+        return removidos;
+    }
+
+    public int tamanho() {
+        return revogados.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.jwt.revogados", revogados, Map::size)
+                .description("Tokens revogados ainda dentro da validade")
+                .register(registry);
+    }
+
+    // Chamado com o lock: adicionar() não pode gravar num filtro que está sendo descartado
+    private void reconstruir() {
+        capacidade = Math.max(capacidadeMinima, revogados.size() * 2);
+        FiltroBloom novo = new FiltroBloom(capacidade, TAXA_FALSO_POSITIVO);
+        revogados.keySet().forEach(novo::adicionar);
+        filtro = novo;
+    }
+}
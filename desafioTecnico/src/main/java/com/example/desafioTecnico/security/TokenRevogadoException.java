@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.security;
+
+import io.jsonwebtoken.JwtException;
+
+/** Token com assinatura e validade corretas, mas revogado por logout antes do "exp". */
+public class TokenRevogadoException extends JwtException {
+
+    public TokenRevogadoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.desafioTecnico.security;
+
+import com.example.desafioTecnico.exception.LoginIndisponivelException;
+import com.example.desafioTecnico.exception.LoginSobrecarregadoException;
+import com.example.desafioTecnico.models.dto.ExecutorEstatisticasDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executa {@link PasswordEncoder#matches} (BCrypt, caro de propósito) num pool próprio e limitado,
+ * para que uma rajada de logins não ocupe as threads de requisição do catálogo.
+ * <p>
+ * Fila cheia rejeita na hora com 429; uma verificação que não termina dentro do timeout
+ * (contando a espera na fila) é cancelada e responde 503.
+ * <p>
+ * O pool continua em threads de plataforma mesmo com threads virtuais ligadas: o trabalho
+ * é só CPU e é o tamanho fixo do pool que impede os logins de tomarem todos os núcleos.
+ */
+@Slf4j
+@Component
+public class VerificadorSenha implements DisposableBean, MeterBinder {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int capacidadeFila;
+    private final long timeoutMs;
+    private final LongAdder rejeitadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+
+    public VerificadorSenha(PasswordEncoder passwordEncoder,
+                            @Value("${app.login.threads:0}") int threads,
+                            @Value("${app.login.fila:64}") int capacidadeFila,
+                            @Value("${app.login.timeout:2s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.capacidadeFila = capacidadeFila;
+        this.timeoutMs = timeout.toMillis();
+        // 0 = uma thread por processador: o trabalho é só CPU
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "verificacao-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public boolean matches(String senha, String hash) {
+        Future<Boolean> resultado;
+        try {
+            resultado = executor.submit(() -> passwordEncoder.matches(senha, hash));
+        } catch (RejectedExecutionException ex) {
+            rejeitadas.increment();
+            throw new LoginSobrecarregadoException("Muitas tentativas de login simultâneas, tente novamente em instantes");
+        }
+        try {
+            return resultado.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            resultado.cancel(true);
+            expiradas.increment();
+            throw new LoginIndisponivelException("Login temporariamente indisponível, tente novamente em instantes");
+        } catch (InterruptedException ex) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginIndisponivelException("Login interrompido");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falha ao verificar a senha", ex.getCause());
+        }
+    }
+
+    public ExecutorEstatisticasDTO estatisticas() {
+        return new ExecutorEstatisticasDTO(
+                executor.getPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                capacidadeFila,
+                executor.getCompletedTaskCount(),
+                rejeitadas.sum(),
+                expiradas.sum()
+        );
+    }
+
+    /** executor.* (fila, ativas, concluídas) com name=verificacaoSenha, mais as rejeições e timeouts. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "verificacaoSenha", List.of()).bindTo(registry);
+        FunctionCounter.builder("login.verificacao.rejeitadas", rejeitadas, LongAdder::sum)
+                .description("Verificações de senha recusadas com a fila cheia (429)")
+                .register(registry);
+        FunctionCounter.builder("login.verificacao.expiradas", expiradas, LongAdder::sum)
+                .description("Verificações de senha canceladas por timeout (503)")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
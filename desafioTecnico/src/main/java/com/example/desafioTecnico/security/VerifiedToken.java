@@ -0,0 +1,11 @@
+package com.example.desafioTecnico.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Dados de um JWT cuja assinatura e validade já foram verificadas.
+ * {@code jti} é nulo em tokens emitidos antes da revogação existir.
+ */
+public record VerifiedToken(String username, Set<String> roles, Instant expiration, String jti) {
+}
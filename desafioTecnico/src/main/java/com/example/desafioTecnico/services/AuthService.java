@@ -1,14 +1,15 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.models.dto.LoginDtos;
 import com.example.desafioTecnico.models.dto.RegisterDtos;
 import com.example.desafioTecnico.models.entities.Usuario;
 import com.example.desafioTecnico.models.enums.Role;
 import com.example.desafioTecnico.repositories.UsuarioRepository;
 import com.example.desafioTecnico.security.JwtService;
+import com.example.desafioTecnico.security.VerificadorSenha;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -22,28 +23,22 @@ public class AuthService {
     private final UsuarioRepository usuarioRepository;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final VerificadorSenha verificadorSenha;
 
-    public String authenticateAndGenerateToken(String username, String password) {
+    /**
+     * Autentica com uma única consulta ao usuário e devolve token e roles juntos.
+     * A comparação da senha roda no pool limitado do {@link VerificadorSenha}.
+     */
+    public LoginDtos.LoginResponse login(String username, String password) {
         Usuario usuario = usuarioRepository.findByUsername(username)
                 .orElseThrow(() -> new BadCredentialsException("Usuário ou senha inválidos"));
 
-        if (!passwordEncoder.matches(password, usuario.getPassword())) {
+        if (!verificadorSenha.matches(password, usuario.getPassword())) {
             throw new BadCredentialsException("Usuário ou senha inválidos");
         }
 
-        Set<String> roles = usuario.getRoles().stream()
-                .map(Role::name)
-                .collect(Collectors.toSet());
-
-        return jwtService.generateToken(usuario.getUsername(), roles);
-    }
-
-    public Set<String> getUserRoles(String username) {
-        return usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"))
-                .getRoles().stream()
-                .map(Role::name)
-                .collect(Collectors.toSet());
+        Set<String> roles = usuario.getRolesAsString();
+        return new LoginDtos.LoginResponse(jwtService.generateToken(usuario.getUsername(), roles), roles);
     }
 
     public Usuario register(RegisterDtos.RegisterRequest req) {
@@ -1,70 +1,158 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.config.CacheConfig;
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
 import com.example.desafioTecnico.exception.AutorExistenteException;
 import com.example.desafioTecnico.exception.AutorNaoEncontradoException;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.AutorMapper;
 import com.example.desafioTecnico.models.dto.AutorCadastroDTO;
 import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
 import com.example.desafioTecnico.repositories.AutorRepository;
-import org.modelmapper.ModelMapper;
+import com.example.desafioTecnico.repositories.VersaoColecao;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class AutorService {
 
+    private static final String SORT_ID = "id";
+    private static final String SORT_NOME = "nome";
+
     private final AutorRepository repository;
-    private final ModelMapper mapper;
+    private final AutorMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RemocaoService remocaoService;
 
-    public AutorService(AutorRepository repository, ModelMapper mapper) {
+    public AutorService(AutorRepository repository, AutorMapper mapper, ApplicationEventPublisher eventPublisher,
+                        RemocaoService remocaoService) {
         this.repository = repository;
         this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+        this.remocaoService = remocaoService;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_PAGINAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    })
     public AutorResponseDTO cadastrar(AutorCadastroDTO dto) {
         if (repository.existsByNomeIgnoreCase(dto.getNome())) {
             throw new AutorExistenteException("Autor já existe: " + dto.getNome());
         }
 
-        Autor autorCadastro = mapper.map(dto, Autor.class);
+        Autor autorCadastro = mapper.toEntity(dto);
         Autor saved = repository.save(autorCadastro);
-        return mapper.map(saved, AutorResponseDTO.class);
+        return mapper.toResponse(saved);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTORES, key = "#id")
     public AutorResponseDTO buscar(Long id) {
         Autor autor = repository.findById(id)
                 .orElseThrow(() -> new AutorNaoEncontradoException("Autor não encontrado com ID: " + id));
-        return mapper.map(autor, AutorResponseDTO.class);
+        return mapper.toResponse(autor);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTORES_PAGINAS)
+    public CursorPage<AutorResponseDTO> listar(String cursor, Integer size, String sort) {
+        int tamanho = Paginacao.tamanho(size);
+        String ordenacao = sort == null || sort.isBlank() ? SORT_ID : sort;
+        Pageable limite = Paginacao.limite(tamanho);
+
+        List<Autor> autores;
+        Function<Autor, Object> chave;
+        switch (ordenacao) {
+            case SORT_ID -> {
+                long afterId = cursor == null ? 0L : Paginacao.decode(cursor, SORT_ID).id();
+                autores = repository.findPaginaPorId(afterId, limite);
+                chave = autor -> null;
+            }
+            case SORT_NOME -> {
+                if (cursor == null) {
+                    autores = repository.findPrimeiraPaginaPorNome(limite);
+                } else {
+                    Paginacao.Cursor c = Paginacao.decode(cursor, SORT_NOME);
+                    autores = repository.findPaginaPorNome(c.valor(), c.id(), limite);
+                }
+                chave = Autor::getNome;
+            }
+            default -> throw new ParametroInvalidoException("Ordenação inválida: " + sort + " (use nome)");
+        }
+
+        return Paginacao.pagina(autores, tamanho,
+                mapper::toResponse,
+                autor -> Paginacao.encode(ordenacao, chave.apply(autor), autor.getId()));
+    }
+
+    /** Versão do recurso, usada como ETag; não carrega a entidade. */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.AUTORES_VERSOES, key = "#id")
+    public String versao(Long id) {
+        return repository.findVersaoById(id)
+                .map(String::valueOf)
+                .orElseThrow(() -> new AutorNaoEncontradoException("Autor não encontrado com ID: " + id));
     }
 
+    /** Versão da coleção inteira, usada como ETag das listagens. */
     @Transactional(readOnly = true)
-    public List<AutorResponseDTO> listar() {
-        return repository.findAll().stream()
-                .map(autor -> mapper.map(autor, AutorResponseDTO.class))
-                .collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfig.AUTORES_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    public String versaoColecao() {
+        VersaoColecao versao = repository.findVersaoColecao();
+        return versao.getTotal() + "@" + versao.getUltimaAtualizacao();
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTORES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_PAGINAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_VERSOES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    })
     public AutorResponseDTO atualizar(Long id, AutorCadastroDTO dto) {
         Autor autor = repository.findById(id)
                 .orElseThrow(() -> new AutorNaoEncontradoException("Autor não encontrado com ID: " + id));
 
 
-        mapper.map(dto, autor);
+        mapper.atualizar(dto, autor);
         Autor autorAtualizado = repository.save(autor);
-        return mapper.map(autorAtualizado, AutorResponseDTO.class);
+        AutorResponseDTO response = mapper.toResponse(autorAtualizado);
+        eventPublisher.publishEvent(new AutorAlteradoEvent(id, response));
+        return response;
     }
 
+    /**
+     * Marca o autor, que some das leituras a partir do commit, e agenda a remoção dos livros
+     * e da própria linha em segundo plano ({@link RemocaoService}). O evento de remoção só sai
+     * quando os livros terminam de ser apagados, uma vez, pelo {@link RemocaoService}.
+     */
     @Transactional
-    public void deletar(Long id) {
-        if (!repository.existsById(id)) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.AUTORES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_PAGINAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_VERSOES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.AUTORES_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    })
+    public RemocaoDTO deletar(Long id) {
+        // Já marcado (remoção falhou ou em andamento): devolve/retoma a remoção em vez de 404
+        if (repository.marcarRemocao(id, LocalDateTime.now()) == 0 && repository.countEmRemocao(id) == 0) {
             throw new AutorNaoEncontradoException("Autor não encontrado com ID: " + id);
         }
-        repository.deleteById(id);
+        return remocaoService.agendar(TipoRemocao.AUTOR, id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,357 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.CursorPage;
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.entities.Livro;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Busca textual de livros por título, editora, nome do autor e nome do gênero.
+ * <p>
+ * Mantém um índice invertido em memória (termo normalizado -> livros e peso), carregado uma
+ * vez na subida da aplicação e atualizado pelos eventos de alteração publicados pelos serviços,
+ * sempre depois do commit. As consultas nunca acessam o banco.
+ */
+@Slf4j
+@Service
+public class BuscaLivroService {
+
+    private static final String SORT_BUSCA = "busca";
+    private static final int LOTE_CARGA = 500;
+
+    private static final int PESO_TITULO = 3;
+    private static final int PESO_AUTOR = 2;
+    private static final int PESO_GENERO = 1;
+    private static final int PESO_EDITORA = 1;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Campos de um livro guardados no índice; autor e gênero são compartilhados por id. */
+    private record Documento(Long id, String titulo, String isbn, String editora, Integer anoPublicacao,
+                             Long autorId, Long generoId) {
+    }
+
+    private record Resultado(Documento documento, int pontos) {
+    }
+
+    private final LivroRepository livroRepository;
+    private final LivroMapper mapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> indice = new TreeMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> termosPorLivro = new HashMap<>();
+    private final Map<Long, AutorResponseDTO> autores = new HashMap<>();
+    private final Map<Long, GeneroResponseDTO> generos = new HashMap<>();
+    private final Map<Long, Set<Long>> livrosPorAutor = new HashMap<>();
+    private final Map<Long, Set<Long>> livrosPorGenero = new HashMap<>();
+
+    // Livros removidos enquanto a carga inicial ainda está lendo o banco
+    private final Set<Long> removidosDuranteCarga = new HashSet<>();
+    private boolean carregando;
+
+    public BuscaLivroService(LivroRepository livroRepository, LivroMapper mapper) {
+        this.livroRepository = livroRepository;
+        this.mapper = mapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        executarEscrita(() -> carregando = true);
+        long afterId = 0L;
+        int total = 0;
+        try {
+            List<Livro> lote;
+            do {
+                lote = livroRepository.findPaginaPorId(afterId, PageRequest.of(0, LOTE_CARGA));
+                List<LivroResponseDTO> livros = lote.stream().map(mapper::toResponse).toList();
+                executarEscrita(() -> livros.stream()
+                        .filter(livro -> !removidosDuranteCarga.contains(livro.getId())
+                                && !documentos.containsKey(livro.getId()))
+                        .forEach(this::indexar));
+                total += lote.size();
+                if (!lote.isEmpty()) {
+                    afterId = lote.get(lote.size() - 1).getId();
+                }
+            } while (lote.size() == LOTE_CARGA);
+        } finally {
+            executarEscrita(() -> {
+                carregando = false;
+                removidosDuranteCarga.clear();
+            });
+        }
+        log.info("Índice de busca de livros carregado com {} livros", total);
+    }
+
+    public CursorPage<LivroResponseDTO> buscar(String q, String cursor, Integer size) {
+        List<String> termos = tokenizar(q);
+        if (termos.isEmpty()) {
+            throw new ParametroInvalidoException("Informe o termo de busca");
+        }
+        int tamanho = Paginacao.tamanho(size);
+        String consulta = String.join(" ", termos);
+        int offset = 0;
+        if (cursor != null) {
+            Paginacao.Cursor c = Paginacao.decode(cursor, SORT_BUSCA);
+            if (!consulta.equals(c.valor()) || c.id() < 0 || c.id() > Integer.MAX_VALUE) {
+                throw new ParametroInvalidoException("Cursor inválido para esta busca");
+            }
+            offset = (int) c.id();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Resultado> resultados = pontuar(termos);
+            int fim = Math.min(resultados.size(), offset + tamanho);
+            List<LivroResponseDTO> itens = offset >= fim ? List.of() : resultados.subList(offset, fim).stream()
+                    .map(resultado -> toResponse(resultado.documento()))
+                    .toList();
+            String next = fim < resultados.size() ? Paginacao.encode(SORT_BUSCA, consulta, (long) fim) : null;
+            return new CursorPage<>(itens, next);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLivroAlterado(LivroAlteradoEvent event) {
+        executarEscrita(() -> {
+            if (event.anterior() != null) {
+                remover(event.anterior().getId());
+            }
+            if (event.atual() != null) {
+                indexar(event.atual());
+            } else if (carregando && event.anterior() != null) {
+                removidosDuranteCarga.add(event.anterior().getId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLivrosImportados(LivrosImportadosEvent event) {
+        executarEscrita(() -> event.livros().forEach(this::indexar));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAutorAlterado(AutorAlteradoEvent event) {
+        executarEscrita(() -> {
+            List<Long> livros = new ArrayList<>(livrosPorAutor.getOrDefault(event.id(), Set.of()));
+            if (event.atual() == null) {
+                livros.forEach(this::removerRegistrandoNaCarga);
+                autores.remove(event.id());
+                return;
+            }
+            if (!livros.isEmpty()) {
+                autores.put(event.id(), event.atual());
+                livros.forEach(this::reindexar);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGeneroAlterado(GeneroAlteradoEvent event) {
+        executarEscrita(() -> {
+            List<Long> livros = new ArrayList<>(livrosPorGenero.getOrDefault(event.id(), Set.of()));
+            if (event.atual() == null) {
+                livros.forEach(this::removerRegistrandoNaCarga);
+                generos.remove(event.id());
+                return;
+            }
+            if (!livros.isEmpty()) {
+                generos.put(event.id(), event.atual());
+                livros.forEach(this::reindexar);
+            }
+        });
+    }
+
+    /** Minúsculas, sem acentos e quebrado em letras/dígitos: "Machado de Assis" -> [machado, de, assis]. */
+    static List<String> tokenizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String semAcento = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(SEPARADORES.split(semAcento.toLowerCase(Locale.ROOT)))
+                .filter(termo -> !termo.isEmpty())
+                .toList();
+    }
+
+    // ---- Consulta (sob read lock) ----
+
+    private List<Resultado> pontuar(List<String> termos) {
+        Map<Long, Integer> pontos = null;
+        for (int i = 0; i < termos.size(); i++) {
+            // O último termo casa por prefixo, para a busca funcionar enquanto o usuário digita
+            Map<Long, Integer> postings = i == termos.size() - 1
+                    ? postingsPorPrefixo(termos.get(i))
+                    : indice.getOrDefault(termos.get(i), Map.of());
+            if (pontos == null) {
+                pontos = new HashMap<>(postings);
+            } else {
+                pontos.keySet().retainAll(postings.keySet());
+                for (Map.Entry<Long, Integer> entry : pontos.entrySet()) {
+                    entry.setValue(entry.getValue() + postings.get(entry.getKey()));
+                }
+            }
+            if (pontos.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Resultado> resultados = new ArrayList<>(pontos.size());
+        pontos.forEach((id, p) -> resultados.add(new Resultado(documentos.get(id), p)));
+        resultados.sort(Comparator.comparingInt(Resultado::pontos).reversed()
+                .thenComparing(resultado -> resultado.documento().id()));
+        return resultados;
+    }
+
+    private Map<Long, Integer> postingsPorPrefixo(String prefixo) {
+        Map<Long, Integer> resultado = new HashMap<>();
+        for (Map<Long, Integer> postings : indice.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false).values()) {
+            postings.forEach((id, peso) -> resultado.merge(id, peso, Math::max));
+        }
+        return resultado;
+    }
+
+    private LivroResponseDTO toResponse(Documento documento) {
+        return new LivroResponseDTO(
+                documento.id(),
+                documento.titulo(),
+                documento.isbn(),
+                documento.editora(),
+                documento.anoPublicacao(),
+                generos.get(documento.generoId()),
+                autores.get(documento.autorId())
+        );
+    }
+
+    // ---- Manutenção (sob write lock) ----
+
+    private void executarEscrita(Runnable acao) {
+        lock.writeLock().lock();
+        try {
+            acao.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexar(LivroResponseDTO livro) {
+        Long autorId = livro.getAutor() == null ? null : livro.getAutor().getId();
+        Long generoId = livro.getGenero() == null ? null : livro.getGenero().getId();
+        if (autorId != null) {
+            autores.put(autorId, livro.getAutor());
+            livrosPorAutor.computeIfAbsent(autorId, k -> new HashSet<>()).add(livro.getId());
+        }
+        if (generoId != null) {
+            generos.put(generoId, livro.getGenero());
+            livrosPorGenero.computeIfAbsent(generoId, k -> new HashSet<>()).add(livro.getId());
+        }
+        Documento documento = new Documento(livro.getId(), livro.getTitulo(), livro.getIsbn(),
+                livro.getEditora(), livro.getAnoPublicacao(), autorId, generoId);
+        documentos.put(documento.id(), documento);
+        adicionarTermos(documento);
+    }
+
+    private void reindexar(Long livroId) {
+        Documento documento = documentos.get(livroId);
+        if (documento != null) {
+            removerTermos(livroId);
+            adicionarTermos(documento);
+        }
+    }
+
+    private void adicionarTermos(Documento documento) {
+        Map<String, Integer> termos = new HashMap<>();
+        acumular(termos, documento.titulo(), PESO_TITULO);
+        acumular(termos, documento.editora(), PESO_EDITORA);
+        AutorResponseDTO autor = autores.get(documento.autorId());
+        if (autor != null) {
+            acumular(termos, autor.getNome(), PESO_AUTOR);
+        }
+        GeneroResponseDTO genero = generos.get(documento.generoId());
+        if (genero != null) {
+            acumular(termos, genero.getNome(), PESO_GENERO);
+        }
+        termos.forEach((termo, peso) -> indice.computeIfAbsent(termo, k -> new HashMap<>()).put(documento.id(), peso));
+        termosPorLivro.put(documento.id(), termos);
+    }
+
+    private static void acumular(Map<String, Integer> termos, String texto, int peso) {
+        for (String termo : tokenizar(texto)) {
+            termos.merge(termo, peso, Math::max);
+        }
+    }
+
+    private void removerTermos(Long livroId) {
+        Map<String, Integer> termos = termosPorLivro.remove(livroId);
+        if (termos == null) {
+            return;
+        }
+        for (String termo : termos.keySet()) {
+            Map<Long, Integer> postings = indice.get(termo);
+            if (postings != null) {
+                postings.remove(livroId);
+                if (postings.isEmpty()) {
+                    indice.remove(termo);
+                }
+            }
+        }
+    }
+
+    private void remover(Long livroId) {
+        removerTermos(livroId);
+        Documento documento = documentos.remove(livroId);
+        if (documento == null) {
+            return;
+        }
+        if (removerDoGrupo(livrosPorAutor, documento.autorId(), livroId)) {
+            autores.remove(documento.autorId());
+        }
+        if (removerDoGrupo(livrosPorGenero, documento.generoId(), livroId)) {
+            generos.remove(documento.generoId());
+        }
+    }
+
+    private void removerRegistrandoNaCarga(Long livroId) {
+        remover(livroId);
+        if (carregando) {
+            removidosDuranteCarga.add(livroId);
+        }
+    }
+
+    /** Retorna true quando o grupo (autor ou gênero) ficou sem livros no índice. */
+    private static boolean removerDoGrupo(Map<Long, Set<Long>> grupos, Long grupoId, Long livroId) {
+        Set<Long> livros = grupoId == null ? null : grupos.get(grupoId);
+        if (livros == null) {
+            return false;
+        }
+        livros.remove(livroId);
+        if (livros.isEmpty()) {
+            grupos.remove(grupoId);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.config.CacheConfig;
+import com.example.desafioTecnico.config.CacheL2Config;
+import com.example.desafioTecnico.models.dto.CacheEstatisticasDTO;
+import com.example.desafioTecnico.security.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class CacheEstatisticasService {
+
+    private final CacheManager cacheManager;
+    private final JwtService jwtService;
+    private final Statistics estatisticasHibernate;
+
+    public CacheEstatisticasService(CacheManager cacheManager,
+                                    JwtService jwtService,
+                                    EntityManagerFactory entityManagerFactory) {
+        this.cacheManager = cacheManager;
+        this.jwtService = jwtService;
+        this.estatisticasHibernate = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, CacheEstatisticasDTO> estatisticas() {
+        Map<String, CacheEstatisticasDTO> resultado = new LinkedHashMap<>();
+        for (String nome : CacheConfig.CACHES) {
+            org.springframework.cache.Cache cache = cacheManager.getCache(nome);
+            if (cache != null && cache.getNativeCache() instanceof Cache<?, ?> nativo) {
+                resultado.put(nome, CacheEstatisticasDTO.de(nativo.stats(), nativo.estimatedSize()));
+            }
+        }
+        resultado.put("jwtVerificados", CacheEstatisticasDTO.de(jwtService.cacheStats(), jwtService.cacheSize()));
+        // Regiões do cache L2; só aparecem com as estatísticas do Hibernate ligadas
+        if (estatisticasHibernate.isStatisticsEnabled()) {
+            List<String> regioes = List.of(estatisticasHibernate.getSecondLevelCacheRegionNames());
+            for (String regiao : CacheL2Config.REGIOES_NOMES) {
+                if (regioes.contains(regiao)) {
+                    resultado.put("l2." + regiao,
+                            CacheEstatisticasDTO.de(estatisticasHibernate.getDomainDataRegionStatistics(regiao)));
+                }
+            }
+        }
+        return resultado;
+    }
+}
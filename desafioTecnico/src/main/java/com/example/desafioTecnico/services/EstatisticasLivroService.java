@@ -0,0 +1,199 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.models.dto.LivroEstatisticasDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.repositories.ContagemLivros;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Contagem de livros por gênero, autor, editora e ano mantida em memória. Os contadores são
+ * lidos com GROUP BY uma vez na subida, antes de o servidor aceitar requisições, e depois só
+ * mudam pelos eventos de alteração, sempre depois do commit. A leitura nunca acessa o banco.
+ * <p>
+ * A remoção de um autor ou gênero apaga os livros dele em blocos, em segundo plano
+ * ({@link RemocaoService}), sem evento por livro; quando ela termina, o que é raro, os
+ * contadores são lidos de novo do banco.
+ */
+@Slf4j
+@Service
+public class EstatisticasLivroService {
+
+    private final LivroRepository livroRepository;
+
+    private long total;
+    private final Map<Long, Long> porGenero = new HashMap<>();
+    private final Map<Long, String> nomesGenero = new HashMap<>();
+    private final Map<Long, Long> porAutor = new HashMap<>();
+    private final Map<Long, String> nomesAutor = new HashMap<>();
+    private final Map<String, Long> porEditora = new HashMap<>();
+    private final Map<Integer, Long> porAno = new HashMap<>();
+
+    // Resposta montada na primeira leitura após uma alteração e reaproveitada até a próxima
+    private volatile LivroEstatisticasDTO instantaneo;
+
+    public EstatisticasLivroService(LivroRepository livroRepository) {
+        this.livroRepository = livroRepository;
+    }
+
+    @PostConstruct
+    void carregar() {
+        recarregar();
+        log.info("Estatísticas do catálogo carregadas: {} livros", total);
+    }
+
+    public LivroEstatisticasDTO estatisticas() {
+        LivroEstatisticasDTO atual = instantaneo;
+        return atual != null ? atual : montar();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onLivroAlterado(LivroAlteradoEvent event) {
+        if (event.anterior() != null) {
+            aplicar(event.anterior(), -1);
+        }
+        if (event.atual() != null) {
+            aplicar(event.atual(), 1);
+        }
+        instantaneo = null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onLivrosImportados(LivrosImportadosEvent event) {
+        event.livros().forEach(livro -> aplicar(livro, 1));
+        instantaneo = null;
+    }
+
+    // REQUIRES_NEW: a recarga roda depois do commit da transação que publicou o evento.
+    // Sem readOnly de propósito: a recarga precisa ler o primário, não uma réplica ainda sem o commit
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAutorAlterado(AutorAlteradoEvent event) {
+        if (event.atual() == null) {
+            recarregar();
+            return;
+        }
+        renomear(nomesAutor, event.id(), event.atual().getNome());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGeneroAlterado(GeneroAlteradoEvent event) {
+        if (event.atual() == null) {
+            recarregar();
+            return;
+        }
+        renomear(nomesGenero, event.id(), event.atual().getNome());
+    }
+
+    private synchronized void recarregar() {
+        List<ContagemLivros.PorReferencia> generos = livroRepository.contarPorGenero();
+        List<ContagemLivros.PorReferencia> autores = livroRepository.contarPorAutor();
+        List<ContagemLivros.PorEditora> editoras = livroRepository.contarPorEditora();
+        List<ContagemLivros.PorAno> anos = livroRepository.contarPorAno();
+
+        porGenero.clear();
+        nomesGenero.clear();
+        generos.forEach(g -> {
+            porGenero.put(g.getId(), g.getTotal());
+            nomesGenero.put(g.getId(), g.getNome());
+        });
+        porAutor.clear();
+        nomesAutor.clear();
+        autores.forEach(a -> {
+            porAutor.put(a.getId(), a.getTotal());
+            nomesAutor.put(a.getId(), a.getNome());
+        });
+        porEditora.clear();
+        editoras.forEach(e -> porEditora.put(e.getEditora(), e.getTotal()));
+        porAno.clear();
+        anos.forEach(a -> porAno.put(a.getAno(), a.getTotal()));
+        total = anos.stream().mapToLong(ContagemLivros.PorAno::getTotal).sum();
+        instantaneo = null;
+    }
+
+    private void aplicar(LivroResponseDTO livro, int delta) {
+        total += delta;
+        if (livro.getGenero() != null) {
+            contar(porGenero, nomesGenero, livro.getGenero().getId(), livro.getGenero().getNome(), delta);
+        }
+        if (livro.getAutor() != null) {
+            contar(porAutor, nomesAutor, livro.getAutor().getId(), livro.getAutor().getNome(), delta);
+        }
+        somar(porEditora, livro.getEditora(), delta);
+        somar(porAno, livro.getAnoPublicacao(), delta);
+    }
+
+    private static void contar(Map<Long, Long> contagem, Map<Long, String> nomes, Long id, String nome, int delta) {
+        if (somar(contagem, id, delta)) {
+            nomes.put(id, nome);
+        } else {
+            nomes.remove(id);
+        }
+    }
+
+    /** Soma {@code delta} à chave, removendo-a quando zera; retorna se a chave continua presente. */
+    private static <K> boolean somar(Map<K, Long> contagem, K chave, int delta) {
+        return contagem.compute(chave, (k, atual) -> {
+            long novo = (atual == null ? 0L : atual) + delta;
+            return novo > 0 ? novo : null;
+        }) != null;
+    }
+
+    private synchronized void renomear(Map<Long, String> nomes, Long id, String nome) {
+        if (nomes.containsKey(id)) {
+            nomes.put(id, nome);
+            instantaneo = null;
+        }
+    }
+
+    private synchronized LivroEstatisticasDTO montar() {
+        if (instantaneo != null) {
+            return instantaneo;
+        }
+        LivroEstatisticasDTO montado = new LivroEstatisticasDTO(
+                total,
+                porReferencia(porGenero, nomesGenero),
+                porReferencia(porAutor, nomesAutor),
+                ordenar(porEditora, (editora, n) -> new LivroEstatisticasDTO.PorEditora(editora, n),
+                        LivroEstatisticasDTO.PorEditora::total, LivroEstatisticasDTO.PorEditora::editora),
+                ordenar(porAno, (ano, n) -> new LivroEstatisticasDTO.PorAno(ano, n),
+                        LivroEstatisticasDTO.PorAno::total, LivroEstatisticasDTO.PorAno::ano)
+        );
+        instantaneo = montado;
+        return montado;
+    }
+
+    private static List<LivroEstatisticasDTO.PorReferencia> porReferencia(Map<Long, Long> contagem,
+                                                                          Map<Long, String> nomes) {
+        return ordenar(contagem, (id, n) -> new LivroEstatisticasDTO.PorReferencia(id, nomes.get(id), n),
+                LivroEstatisticasDTO.PorReferencia::total, LivroEstatisticasDTO.PorReferencia::id);
+    }
+
+    /** Maiores contagens primeiro; empates pela chave, com nulos no fim. */
+    private static <K extends Comparable<K>, T> List<T> ordenar(Map<K, Long> contagem,
+                                                                 BiFunction<K, Long, T> item,
+                                                                 ToLongFunction<T> total,
+                                                                 Function<T, K> chave) {
+        List<T> itens = new ArrayList<>(contagem.size());
+        contagem.forEach((k, n) -> itens.add(item.apply(k, n)));
+        itens.sort(Comparator.comparingLong(total).reversed()
+                .thenComparing(chave, Comparator.nullsLast(Comparator.naturalOrder())));
+        return List.copyOf(itens);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.models.dto.LivroExportacaoDTO;
+import com.example.desafioTecnico.models.enums.FormatoArquivo;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação do catálogo completo em NDJSON ou CSV. As linhas vêm de um cursor do banco
+ * e são escritas na saída uma a uma, então o heap usado não depende do tamanho do catálogo.
+ */
+@Slf4j
+@Service
+public class ExportacaoLivroService {
+
+    static final String CABECALHO_CSV = "id,titulo,isbn,editora,anoPublicacao,autorId,autorNome,generoId,generoNome";
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final LivroRepository livroRepository;
+    private final ObjectWriter escritorJson;
+
+    public ExportacaoLivroService(LivroRepository livroRepository, ObjectMapper objectMapper) {
+        this.livroRepository = livroRepository;
+        this.escritorJson = objectMapper.writerFor(LivroExportacaoDTO.class);
+    }
+
+    /** Escreve todos os livros em {@code saida} (sem fechá-la) e retorna quantos foram exportados. */
+    @Transactional(readOnly = true)
+    public long exportar(OutputStream saida, FormatoArquivo formato) throws IOException {
+        long total;
+        try (Stream<LivroExportacaoDTO> linhas = livroRepository.streamExportacao()) {
+            total = formato == FormatoArquivo.CSV
+                    ? escreverCsv(linhas.iterator(), saida)
+                    : escreverNdjson(linhas.iterator(), saida);
+        }
+        log.info("Exportação de livros ({}) concluída: {} livros", formato, total);
+        return total;
+    }
+
+    private long escreverNdjson(Iterator<LivroExportacaoDTO> linhas, OutputStream saida) throws IOException {
+        long total = 0;
+        JsonGenerator gerador = escritorJson.createGenerator(saida);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gerador.setRootValueSeparator(new SerializedString("\n"));
+        while (linhas.hasNext()) {
+            escritorJson.writeValue(gerador, linhas.next());
+            total++;
+        }
+        if (total > 0) {
+            gerador.writeRaw('\n');
+        }
+        gerador.close();
+        return total;
+    }
+
+    private long escreverCsv(Iterator<LivroExportacaoDTO> linhas, OutputStream saida) throws IOException {
+        long total = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), BUFFER);
+        writer.write(CABECALHO_CSV);
+        writer.write('\n');
+        while (linhas.hasNext()) {
+            LivroExportacaoDTO livro = linhas.next();
+            writer.write(String.valueOf(livro.id()));
+            campo(writer, livro.titulo());
+            campo(writer, livro.isbn());
+            campo(writer, livro.editora());
+            campo(writer, livro.anoPublicacao());
+            campo(writer, livro.autorId());
+            campo(writer, livro.autorNome());
+            campo(writer, livro.generoId());
+            campo(writer, livro.generoNome());
+            writer.write('\n');
+            total++;
+        }
+        writer.flush();
+        return total;
+    }
+
+    /** Escreve ",valor", entre aspas quando o valor tem vírgula, aspas ou quebra de linha. */
+    private static void campo(Writer writer, Object valor) throws IOException {
+        writer.write(',');
+        if (valor == null) {
+            return;
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            writer.write(texto);
+            return;
+        }
+        writer.write('"');
+        writer.write(texto.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
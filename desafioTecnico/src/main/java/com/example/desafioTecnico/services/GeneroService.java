@@ -1,70 +1,158 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.config.CacheConfig;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
 import com.example.desafioTecnico.exception.GeneroExistenteException;
 import com.example.desafioTecnico.exception.GeneroNaoEncontradoException;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.dto.GeneroCadastroDTO;
 import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
 import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
 import com.example.desafioTecnico.repositories.GeneroRepository;
-import org.modelmapper.ModelMapper;
+import com.example.desafioTecnico.repositories.VersaoColecao;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class GeneroService {
 
+    private static final String SORT_ID = "id";
+    private static final String SORT_NOME = "nome";
+
     private final GeneroRepository repository;
-    private final ModelMapper mapper;
+    private final GeneroMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RemocaoService remocaoService;
 
-    public GeneroService(GeneroRepository repository, ModelMapper mapper) {
+    public GeneroService(GeneroRepository repository, GeneroMapper mapper, ApplicationEventPublisher eventPublisher,
+                         RemocaoService remocaoService) {
         this.repository = repository;
         this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+        this.remocaoService = remocaoService;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_PAGINAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    })
     public GeneroResponseDTO cadastrar(GeneroCadastroDTO dto) {
         if (repository.existsByNomeIgnoreCase(dto.getNome())) {
             throw new GeneroExistenteException("Já existe um gênero com este nome: " + dto.getNome());
         }
 
-        Genero genero = mapper.map(dto, Genero.class);
+        Genero genero = mapper.toEntity(dto);
         Genero saved = repository.save(genero);
-        return mapper.map(saved, GeneroResponseDTO.class);
+        return mapper.toResponse(saved);
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GENEROS, key = "#id")
     public GeneroResponseDTO buscar(Long id) {
         Genero genero = repository.findById(id)
                 .orElseThrow(() -> new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + id));
-        return mapper.map(genero, GeneroResponseDTO.class);
+        return mapper.toResponse(genero);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GENEROS_PAGINAS)
+    public CursorPage<GeneroResponseDTO> listar(String cursor, Integer size, String sort) {
+        int tamanho = Paginacao.tamanho(size);
+        String ordenacao = sort == null || sort.isBlank() ? SORT_ID : sort;
+        Pageable limite = Paginacao.limite(tamanho);
+
+        List<Genero> generos;
+        Function<Genero, Object> chave;
+        switch (ordenacao) {
+            case SORT_ID -> {
+                long afterId = cursor == null ? 0L : Paginacao.decode(cursor, SORT_ID).id();
+                generos = repository.findPaginaPorId(afterId, limite);
+                chave = genero -> null;
+            }
+            case SORT_NOME -> {
+                if (cursor == null) {
+                    generos = repository.findPrimeiraPaginaPorNome(limite);
+                } else {
+                    Paginacao.Cursor c = Paginacao.decode(cursor, SORT_NOME);
+                    generos = repository.findPaginaPorNome(c.valor(), c.id(), limite);
+                }
+                chave = Genero::getNome;
+            }
+            default -> throw new ParametroInvalidoException("Ordenação inválida: " + sort + " (use nome)");
+        }
+
+        return Paginacao.pagina(generos, tamanho,
+                mapper::toResponse,
+                genero -> Paginacao.encode(ordenacao, chave.apply(genero), genero.getId()));
+    }
+
+    /** Versão do recurso, usada como ETag; não carrega a entidade. */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GENEROS_VERSOES, key = "#id")
+    public String versao(Long id) {
+        return repository.findVersaoById(id)
+                .map(String::valueOf)
+                .orElseThrow(() -> new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + id));
     }
 
+    /** Versão da coleção inteira, usada como ETag das listagens. */
     @Transactional(readOnly = true)
-    public List<GeneroResponseDTO> listar() {
-        return repository.findAll().stream()
-                .map(genero -> mapper.map(genero, GeneroResponseDTO.class))
-                .collect(Collectors.toList());
+    @Cacheable(cacheNames = CacheConfig.GENEROS_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    public String versaoColecao() {
+        VersaoColecao versao = repository.findVersaoColecao();
+        return versao.getTotal() + "@" + versao.getUltimaAtualizacao();
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.GENEROS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_PAGINAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_VERSOES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    })
     public GeneroResponseDTO atualizar(Long id, GeneroCadastroDTO dto) {
         Genero genero = repository.findById(id)
                 .orElseThrow(() -> new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + id));
 
 
-        mapper.map(dto, genero);
+        mapper.atualizar(dto, genero);
         Genero updated = repository.save(genero);
-        return mapper.map(updated, GeneroResponseDTO.class);
+        GeneroResponseDTO response = mapper.toResponse(updated);
+        eventPublisher.publishEvent(new GeneroAlteradoEvent(id, response));
+        return response;
     }
 
+    /**
+     * Marca o gênero, que some das leituras a partir do commit, e agenda a remoção dos livros
+     * e da própria linha em segundo plano ({@link RemocaoService}). O evento de remoção só sai
+     * quando os livros terminam de ser apagados, uma vez, pelo {@link RemocaoService}.
+     */
     @Transactional
-    public void deletar(Long id) {
-        if (!repository.existsById(id)) {
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.GENEROS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_PAGINAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_VERSOES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.GENEROS_VERSOES, key = CacheConfig.CHAVE_VERSAO_COLECAO)
+    })
+    public RemocaoDTO deletar(Long id) {
+        // Já marcado (remoção falhou ou em andamento): devolve/retoma a remoção em vez de 404
+        if (repository.marcarRemocao(id, LocalDateTime.now()) == 0 && repository.countEmRemocao(id) == 0) {
             throw new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + id);
         }
-        repository.deleteById(id);
+        return remocaoService.agendar(TipoRemocao.GENERO, id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.ImportacaoErroDTO;
+import com.example.desafioTecnico.models.dto.ImportacaoResultadoDTO;
+import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import com.example.desafioTecnico.models.enums.FormatoArquivo;
+import com.example.desafioTecnico.repositories.AutorRepository;
+import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de livros em lote a partir de NDJSON (um {@link LivroCadastroDTO} por linha)
+ * ou CSV com cabeçalho ({@code titulo,isbn,editora,anoPublicacao,autorId,generoId}).
+ * <p>
+ * O corpo é lido registro a registro e gravado em lotes: para cada lote, ISBNs, autores e gêneros
+ * são verificados com uma consulta cada, e o lote é gravado numa transação própria. Linhas
+ * inválidas são rejeitadas individualmente sem interromper a importação, então a memória
+ * usada depende só do tamanho do lote e do limite do relatório de erros.
+ * <p>
+ * No NDJSON cada linha é um registro. No CSV um campo entre aspas pode conter quebras de linha
+ * (RFC 4180), então o registro segue pelas linhas seguintes até as aspas fecharem; os erros
+ * apontam a linha em que o registro começa.
+ */
+@Slf4j
+@Service
+public class ImportacaoLivroService {
+
+    static final int MAX_ERROS = 1000;
+    // Aspas esquecidas fariam o registro engolir o resto do arquivo
+    static final int MAX_TAMANHO_REGISTRO_CSV = 64 * 1024;
+
+    private static final String COLUNA_TITULO = "titulo";
+    private static final String COLUNA_ISBN = "isbn";
+    private static final String COLUNA_EDITORA = "editora";
+    private static final String COLUNA_ANO = "anoPublicacao";
+    private static final String COLUNA_AUTOR = "autorId";
+    private static final String COLUNA_GENERO = "generoId";
+    private static final List<String> COLUNAS_OBRIGATORIAS =
+            List.of(COLUNA_TITULO, COLUNA_ISBN, COLUNA_EDITORA, COLUNA_AUTOR, COLUNA_GENERO);
+
+    private final LivroRepository livroRepository;
+    private final AutorRepository autorRepository;
+    private final GeneroRepository generoRepository;
+    private final LivroMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader leitorJson;
+    private final int tamanhoLote;
+
+    public ImportacaoLivroService(LivroRepository livroRepository,
+                                  AutorRepository autorRepository,
+                                  GeneroRepository generoRepository,
+                                  LivroMapper mapper,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.importacao.lote:500}") int tamanhoLote) {
+        this.livroRepository = livroRepository;
+        this.autorRepository = autorRepository;
+        this.generoRepository = generoRepository;
+        this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leitorJson = objectMapper.readerFor(LivroCadastroDTO.class);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    private record Linha(long numero, LivroCadastroDTO dto) {
+    }
+
+    public ImportacaoResultadoDTO importar(BufferedReader reader, FormatoArquivo formato) throws IOException {
+        Relatorio relatorio = new Relatorio();
+        List<Linha> lote = new ArrayList<>(tamanhoLote);
+        Map<String, Integer> colunas = null;
+        long numero = 0;
+        String texto;
+        while ((texto = reader.readLine()) != null) {
+            long linha = ++numero;
+            if (formato == FormatoArquivo.CSV && aspasAbertas(texto)) {
+                StringBuilder registro = new StringBuilder(texto);
+                String continuacao;
+                while (aspasAbertas(registro) && registro.length() <= MAX_TAMANHO_REGISTRO_CSV
+                        && (continuacao = reader.readLine()) != null) {
+                    numero++;
+                    registro.append('\n').append(continuacao);
+                }
+                texto = registro.toString();
+            }
+            if (texto.isBlank()) {
+                continue;
+            }
+            if (formato == FormatoArquivo.CSV && colunas == null) {
+                colunas = cabecalho(texto);
+                continue;
+            }
+            relatorio.total++;
+            LivroCadastroDTO dto;
+            try {
+                dto = formato == FormatoArquivo.CSV ? lerCsv(texto, colunas) : lerJson(texto);
+            } catch (IllegalArgumentException ex) {
+                relatorio.rejeitar(new ImportacaoErroDTO(linha, null, ex.getMessage()));
+                continue;
+            }
+            String isbn = Isbn.normalizar(dto.getIsbn());
+            String erro = validar(dto, isbn);
+            if (erro != null) {
+                relatorio.rejeitar(new ImportacaoErroDTO(linha, dto.getIsbn(), erro));
+                continue;
+            }
+            // Daqui em diante o ISBN está na forma canônica: é a chave de duplicidade e o valor gravado
+            dto.setIsbn(isbn);
+            lote.add(new Linha(linha, dto));
+            if (lote.size() == tamanhoLote) {
+                processarLote(lote, relatorio);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            processarLote(lote, relatorio);
+        }
+        log.info("Importação de livros concluída: {} linhas, {} importadas, {} rejeitadas",
+                relatorio.total, relatorio.importados, relatorio.rejeitados);
+        return relatorio.resultado();
+    }
+
+    private void processarLote(List<Linha> lote, Relatorio relatorio) {
+        List<ImportacaoErroDTO> rejeicoes = new ArrayList<>();
+        List<Linha> gravadas = new ArrayList<>(lote.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> gravar(lote, rejeicoes, gravadas));
+            relatorio.importados += gravadas.size();
+        } catch (DataIntegrityViolationException ex) {
+            // Outro cadastro gravou um dos ISBNs entre a verificação e o commit; o lote inteiro volta
+            log.warn("Lote de importação desfeito por violação de integridade: {}", ex.getMostSpecificCause().getMessage());
+            gravadas.forEach(linha -> rejeicoes.add(new ImportacaoErroDTO(linha.numero(), linha.dto().getIsbn(),
+                    "Lote não gravado: conflito com outra gravação simultânea")));
+        }
+        rejeicoes.sort(Comparator.comparingLong(ImportacaoErroDTO::linha));
+        rejeicoes.forEach(relatorio::rejeitar);
+    }
+
+    private void gravar(List<Linha> lote, List<ImportacaoErroDTO> rejeicoes, List<Linha> gravadas) {
+        Set<String> isbns = new HashSet<>(livroRepository.findIsbnsExistentes(
+                lote.stream().map(linha -> linha.dto().getIsbn()).collect(Collectors.toSet())));
+        Map<Long, Autor> autores = porId(autorRepository.findAllById(
+                lote.stream().map(linha -> linha.dto().getAutorId()).collect(Collectors.toSet())), Autor::getId);
+        Map<Long, Genero> generos = porId(generoRepository.findAllById(
+                lote.stream().map(linha -> linha.dto().getGeneroId()).collect(Collectors.toSet())), Genero::getId);
+
+        List<Livro> livros = new ArrayList<>(lote.size());
+        for (Linha linha : lote) {
+            LivroCadastroDTO dto = linha.dto();
+            Autor autor = autores.get(dto.getAutorId());
+            Genero genero = generos.get(dto.getGeneroId());
+            String erro = null;
+            // add() falso também pega ISBN repetido dentro do próprio arquivo
+            if (!isbns.add(dto.getIsbn())) {
+                erro = "Já existe um livro com este ISBN: " + dto.getIsbn();
+            } else if (autor == null) {
+                erro = "Autor não encontrado com ID: " + dto.getAutorId();
+            } else if (genero == null) {
+                erro = "Gênero não encontrado com ID: " + dto.getGeneroId();
+            }
+            if (erro != null) {
+                rejeicoes.add(new ImportacaoErroDTO(linha.numero(), dto.getIsbn(), erro));
+                continue;
+            }
+            Livro livro = mapper.toEntity(dto);
+            livro.setAutor(autor);
+            livro.setGenero(genero);
+            livros.add(livro);
+            gravadas.add(linha);
+        }
+
+        livroRepository.saveAll(livros);
+        if (!livros.isEmpty()) {
+            // Um evento por lote: o outbox grava as linhas do lote com um INSERT só
+            eventPublisher.publishEvent(new LivrosImportadosEvent(livros.stream().map(mapper::toResponse).toList()));
+        }
+    }
+
+    // ---- Leitura das linhas ----
+
+    private LivroCadastroDTO lerJson(String texto) {
+        try {
+            return leitorJson.readValue(texto);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("JSON inválido: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static Map<String, Integer> cabecalho(String texto) {
+        List<String> nomes = campos(texto.startsWith("\uFEFF") ? texto.substring(1) : texto);
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim(), i);
+        }
+        List<String> ausentes = COLUNAS_OBRIGATORIAS.stream().filter(c -> !colunas.containsKey(c)).toList();
+        if (!ausentes.isEmpty()) {
+            throw new ParametroInvalidoException("Cabeçalho CSV sem as colunas: " + String.join(", ", ausentes));
+        }
+        return colunas;
+    }
+
+    private static LivroCadastroDTO lerCsv(String texto, Map<String, Integer> colunas) {
+        List<String> valores = campos(texto);
+        Function<String, String> valor = coluna -> {
+            Integer indice = colunas.get(coluna);
+            String v = indice == null || indice >= valores.size() ? null : valores.get(indice).trim();
+            return v == null || v.isEmpty() ? null : v;
+        };
+        return new LivroCadastroDTO(
+                valor.apply(COLUNA_TITULO),
+                valor.apply(COLUNA_ISBN),
+                valor.apply(COLUNA_EDITORA),
+                numero(valor.apply(COLUNA_ANO), COLUNA_ANO, Integer::valueOf),
+                numero(valor.apply(COLUNA_GENERO), COLUNA_GENERO, Long::valueOf),
+                numero(valor.apply(COLUNA_AUTOR), COLUNA_AUTOR, Long::valueOf)
+        );
+    }
+
+    /** Número ímpar de aspas: um campo entre aspas ainda não fechou ({@code ""} conta duas vezes). */
+    static boolean aspasAbertas(CharSequence texto) {
+        boolean abertas = false;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') {
+                abertas = !abertas;
+            }
+        }
+        return abertas;
+    }
+
+    /** Separa um registro CSV por vírgulas, respeitando campos entre aspas ("" escapa aspas). */
+    static List<String> campos(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c != '"') {
+                    atual.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Registro CSV com aspas não fechadas");
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private static <N> N numero(String valor, String coluna, Function<String, N> parse) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return parse.apply(valor);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Valor numérico inválido em " + coluna + ": " + valor);
+        }
+    }
+
+    /**
+     * Mesmas regras das anotações de {@link LivroCadastroDTO}, aplicadas linha a linha.
+     * {@code isbn} é o da linha já normalizado, nulo se inválido.
+     */
+    private static String validar(LivroCadastroDTO dto, String isbn) {
+        if (dto.getTitulo() == null || dto.getTitulo().isBlank()) {
+            return "O título é obrigatório";
+        }
+        if (dto.getTitulo().length() > 255) {
+            return "O título deve ter no máximo 255 caracteres";
+        }
+        if (dto.getIsbn() == null || dto.getIsbn().isBlank()) {
+            return "O ISBN é obrigatório";
+        }
+        if (isbn == null) {
+            return "ISBN inválido: " + dto.getIsbn();
+        }
+        if (dto.getEditora() == null || dto.getEditora().isBlank()) {
+            return "A editora é obrigatória";
+        }
+        if (dto.getEditora().length() > 20) {
+            return "A editora deve ter no máximo 20 caracteres";
+        }
+        if (dto.getGeneroId() == null) {
+            return "O ID do gênero é obrigatório";
+        }
+        if (dto.getAutorId() == null) {
+            return "O ID do autor é obrigatório";
+        }
+        return null;
+    }
+
+    private static <E> Map<Long, E> porId(List<E> entidades, Function<E, Long> id) {
+        return entidades.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static final class Relatorio {
+        private long total;
+        private long importados;
+        private long rejeitados;
+        private long omitidos;
+        private final List<ImportacaoErroDTO> erros = new ArrayList<>();
+
+        void rejeitar(ImportacaoErroDTO erro) {
+            rejeitados++;
+            if (erros.size() < MAX_ERROS) {
+                erros.add(erro);
+            } else {
+                omitidos++;
+            }
+        }
+
+        ImportacaoResultadoDTO resultado() {
+            return new ImportacaoResultadoDTO(total, importados, rejeitados, List.copyOf(erros), omitidos);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.desafioTecnico.services;
+
+/**
+ * Forma canônica do ISBN: os 13 dígitos do ISBN-13, sem hífens nem espaços. Um ISBN-10 vira o
+ * ISBN-13 equivalente (prefixo 978), então as duas formas do mesmo livro dão a mesma chave, que
+ * também é o número do código de barras.
+ * <p>
+ * A validação percorre o texto uma vez, acumulando os dígitos num {@code long} e os dígitos
+ * verificadores das duas versões ao mesmo tempo; só o resultado aloca uma String.
+ */
+public final class Isbn {
+
+    private static final long PREFIXO_ISBN10 = 978_000_000_000L;
+
+    private Isbn() {
+    }
+
+    /** ISBN-13 canônico, ou {@code null} se o valor não for um ISBN-10/13 com dígito verificador válido. */
+    public static String normalizar(CharSequence valor) {
+        long numero = comoNumero(valor);
+        return numero < 0 ? null : Long.toString(numero);
+    }
+
+    /** O ISBN-13 canônico como número, ou -1 se inválido. */
+    static long comoNumero(CharSequence valor) {
+        if (valor == null) {
+            return -1;
+        }
+        long digitos = 0;
+        int quantidade = 0;
+        // ISBN-10: somar as somas parciais equivale aos pesos 10..1
+        int soma = 0;
+        int somaPonderada10 = 0;
+        // ISBN-13: pesos 1 e 3 alternados
+        int somaPonderada13 = 0;
+        boolean terminaEmX = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            int digito;
+            if (c >= '0' && c <= '9' && !terminaEmX) {
+                digito = c - '0';
+                digitos = digitos * 10 + digito;
+            } else if ((c == 'X' || c == 'x') && quantidade == 9) {
+                // X (10) só existe no verificador do ISBN-10
+                digito = 10;
+                terminaEmX = true;
+            } else {
+                return -1;
+            }
+            if (++quantidade > 13) {
+                return -1;
+            }
+            soma += digito;
+            somaPonderada10 += soma;
+            somaPonderada13 += quantidade % 2 == 1 ? digito : 3 * digito;
+        }
+        if (quantidade == 13) {
+            long prefixo = digitos / 10_000_000_000L;
+            return somaPonderada13 % 10 == 0 && (prefixo == 978 || prefixo == 979) ? digitos : -1;
+        }
+        if (quantidade == 10 && somaPonderada10 % 11 == 0) {
+            long semVerificador = PREFIXO_ISBN10 + (terminaEmX ? digitos : digitos / 10);
+            return semVerificador * 10 + verificador13(semVerificador);
+        }
+        return -1;
+    }
+
+    /** Dígito verificador do ISBN-13 para os 12 primeiros dígitos. */
+    private static int verificador13(long doze) {
+        int soma = 0;
+        // Da direita para a esquerda: o 12º dígito tem peso 3
+        for (int i = 0; i < 12; i++) {
+            int digito = (int) (doze % 10);
+            soma += i % 2 == 0 ? 3 * digito : digito;
+            doze /= 10;
+        }
+        return (10 - soma % 10) % 10;
+    }
+}
@@ -1,116 +1,278 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
 import com.example.desafioTecnico.exception.AutorNaoEncontradoException;
 import com.example.desafioTecnico.exception.GeneroNaoEncontradoException;
 import com.example.desafioTecnico.exception.IsbnExistenteException;
 import com.example.desafioTecnico.exception.LivroNaoEncontradoException;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
 import com.example.desafioTecnico.models.dto.LivroResponseDTO;
-import com.example.desafioTecnico.models.entities.Autor;
-import com.example.desafioTecnico.models.entities.Genero;
 import com.example.desafioTecnico.models.entities.Livro;
 import com.example.desafioTecnico.repositories.AutorRepository;
 import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroReferenciasRepository;
 import com.example.desafioTecnico.repositories.LivroRepository;
-import org.modelmapper.ModelMapper;
+import com.example.desafioTecnico.repositories.VersaoColecao;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 @Service
 public class LivroService {
 
+    private static final String SORT_ID = "id";
+    private static final String SORT_TITULO = "titulo";
+    private static final String SORT_ANO = "anoPublicacao";
+
     private final LivroRepository livroRepository;
     private final AutorRepository autorRepository;
     private final GeneroRepository generoRepository;
-    private final ModelMapper mapper;
+    private final LivroMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LivroService(LivroRepository livroRepository,
                         AutorRepository autorRepository,
                         GeneroRepository generoRepository,
-                        ModelMapper mapper) {
+                        LivroMapper mapper,
+                        ApplicationEventPublisher eventPublisher) {
         this.livroRepository = livroRepository;
         this.autorRepository = autorRepository;
         this.generoRepository = generoRepository;
         this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Com autor e gênero no cache L2 só o INSERT vai ao banco; sem eles, um SELECT traz os dois
+     * antes. ISBN repetido (em qualquer forma: 10 ou 13 dígitos, com ou sem hífens) é detectado
+     * pelo índice único.
+     */
     @Transactional
     public LivroResponseDTO cadastrar(LivroCadastroDTO dto) {
-        validarIsbnUnico(dto.getIsbn(), null);
-
-        Autor autor = buscarAutor(dto.getAutorId());
-        Genero genero = buscarGenero(dto.getGeneroId());
+        String isbn = isbnCanonico(dto.getIsbn());
+        LivroReferenciasRepository.Referencias referencias = livroRepository
+                .findReferencias(dto.getAutorId(), dto.getGeneroId())
+                .orElseThrow(() -> referenciaInexistente(dto.getAutorId(), dto.getGeneroId()));
 
-        Livro livro = mapper.map(dto, Livro.class);
-        livro.setAutor(autor);
-        livro.setGenero(genero);
+        Livro livro = mapper.toEntity(dto);
+        livro.setIsbn(isbn);
+        livro.setAutor(referencias.autor());
+        livro.setGenero(referencias.genero());
 
-        Livro livroSalvo = livroRepository.save(livro);
-        return mapper.map(livroSalvo, LivroResponseDTO.class);
+        Livro livroSalvo;
+        try {
+            // IDENTITY: o INSERT sai aqui, então a violação aparece dentro do método
+            livroSalvo = livroRepository.save(livro);
+        } catch (DataIntegrityViolationException ex) {
+            throw isbnDuplicado(ex, "Já existe um livro com este ISBN: " + isbn);
+        }
+        LivroResponseDTO response = mapper.toResponse(livroSalvo);
+        eventPublisher.publishEvent(new LivroAlteradoEvent(null, response));
+        return response;
     }
 
     @Transactional(readOnly = true)
     public LivroResponseDTO buscar(Long id) {
-        Livro livro = livroRepository.findById(id)
+        Livro livro = livroRepository.findDetalhadoById(id)
                 .orElseThrow(() -> new LivroNaoEncontradoException("Livro não encontrado com ID: " + id));
-        return mapper.map(livro, LivroResponseDTO.class);
+        return mapper.toResponse(livro);
     }
 
+    /** Busca exata pelo ISBN em qualquer forma; com o livro nos caches L2, nenhum SELECT. */
     @Transactional(readOnly = true)
-    public List<LivroResponseDTO> listar() {
-        return livroRepository.findAll().stream()
-                .map(livro -> mapper.map(livro, LivroResponseDTO.class))
-                .collect(Collectors.toList());
+    public LivroResponseDTO buscarPorIsbn(String isbn) {
+        Livro livro = livroRepository.findPorIsbn(isbnCanonico(isbn))
+                .orElseThrow(() -> new LivroNaoEncontradoException("Livro não encontrado com ISBN: " + isbn));
+        return mapper.toResponse(livro);
     }
 
-    @Transactional
-    public LivroResponseDTO atualizar(Long id, LivroCadastroDTO dto) {
-        Livro livro = livroRepository.findById(id)
+    @Transactional(readOnly = true)
+    public CursorPage<LivroResponseDTO> listar(String cursor, Integer size, String sort) {
+        int tamanho = Paginacao.tamanho(size);
+        String ordenacao = sort == null || sort.isBlank() ? SORT_ID : sort;
+        Pageable limite = Paginacao.limite(tamanho);
+
+        List<Livro> livros;
+        Function<Livro, Object> chave;
+        switch (ordenacao) {
+            case SORT_ID -> {
+                long afterId = cursor == null ? 0L : Paginacao.decode(cursor, SORT_ID).id();
+                livros = livroRepository.findPaginaPorId(afterId, limite);
+                chave = livro -> null;
+            }
+            case SORT_TITULO -> {
+                if (cursor == null) {
+                    livros = livroRepository.findPrimeiraPaginaPorTitulo(limite);
+                } else {
+                    Paginacao.Cursor c = Paginacao.decode(cursor, SORT_TITULO);
+                    livros = livroRepository.findPaginaPorTitulo(c.valor(), c.id(), limite);
+                }
+                chave = Livro::getTitulo;
+            }
+            case SORT_ANO -> {
+                if (cursor == null) {
+                    livros = livroRepository.findPrimeiraPaginaPorAno(limite);
+                } else {
+                    Paginacao.Cursor c = Paginacao.decode(cursor, SORT_ANO);
+                    livros = c.valor() == null
+                            ? livroRepository.findPaginaPorAnoAposNulos(c.id(), limite)
+                            : livroRepository.findPaginaPorAno(parseAno(c.valor()), c.id(), limite);
+                }
+                chave = Livro::getAnoPublicacao;
+            }
+            default -> throw new ParametroInvalidoException(
+                    "Ordenação inválida: " + sort + " (use titulo ou anoPublicacao)");
+        }
+
+        return Paginacao.pagina(livros, tamanho,
+                mapper::toResponse,
+                livro -> Paginacao.encode(ordenacao, chave.apply(livro), livro.getId()));
+    }
+
+    /** Livros do autor, paginados por id; 404 se o autor não existe. */
+    @Transactional(readOnly = true)
+    public CursorPage<LivroResponseDTO> listarPorAutor(Long autorId, String cursor, Integer size) {
+        CursorPage<LivroResponseDTO> pagina = listarPorId(cursor, size,
+                (afterId, limite) -> livroRepository.findPaginaPorAutor(autorId, afterId, limite));
+        // Só uma primeira página vazia precisa distinguir "sem livros" de "autor inexistente"
+        if (cursor == null && pagina.items().isEmpty() && !autorRepository.existsById(autorId)) {
+            throw new AutorNaoEncontradoException("Autor não encontrado com ID: " + autorId);
+        }
+        return pagina;
+    }
+
+    /** Livros do gênero, paginados por id; 404 se o gênero não existe. */
+    @Transactional(readOnly = true)
+    public CursorPage<LivroResponseDTO> listarPorGenero(Long generoId, String cursor, Integer size) {
+        CursorPage<LivroResponseDTO> pagina = listarPorId(cursor, size,
+                (afterId, limite) -> livroRepository.findPaginaPorGenero(generoId, afterId, limite));
+        if (cursor == null && pagina.items().isEmpty() && !generoRepository.existsById(generoId)) {
+            throw new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + generoId);
+        }
+        return pagina;
+    }
+
+    @Transactional(readOnly = true)
+    public long contarPorAutor(Long autorId) {
+        return livroRepository.countByAutorId(autorId);
+    }
+
+    @Transactional(readOnly = true)
+    public long contarPorGenero(Long generoId) {
+        return livroRepository.countByGeneroId(generoId);
+    }
+
+    /** Versão do livro combinada com a do autor e a do gênero, usada como ETag. */
+    @Transactional(readOnly = true)
+    public String versao(Long id) {
+        LivroRepository.VersoesLivro versoes = livroRepository.findVersoesById(id)
                 .orElseThrow(() -> new LivroNaoEncontradoException("Livro não encontrado com ID: " + id));
+        return versoes.getLivro() + "-" + versoes.getAutor() + "-" + versoes.getGenero();
+    }
 
-        validarIsbnUnico(dto.getIsbn(), id);
+    /** Versão da listagem de livros; inclui autores e gêneros, que aparecem aninhados no JSON. */
+    @Transactional(readOnly = true)
+    public String versaoColecao() {
+        return String.join("|",
+                versaoDe(livroRepository.findVersaoColecao()),
+                versaoDe(autorRepository.findVersaoColecao()),
+                versaoDe(generoRepository.findVersaoColecao()));
+    }
 
-        Autor autor = buscarAutor(dto.getAutorId());
-        Genero genero = buscarGenero(dto.getGeneroId());
+    /**
+     * Com livro, autor e gênero no cache L2 só o UPDATE das colunas alteradas vai ao banco; sem
+     * eles, um SELECT traz o livro (com autor e gênero atuais) e os informados antes.
+     */
+    @Transactional
+    public LivroResponseDTO atualizar(Long id, LivroCadastroDTO dto) {
+        String isbn = isbnCanonico(dto.getIsbn());
+        LivroReferenciasRepository.ParaAtualizar carregado = livroRepository
+                .findParaAtualizar(id, dto.getAutorId(), dto.getGeneroId())
+                .orElseThrow(() -> {
+                    if (!livroRepository.existsById(id)) {
+                        return new LivroNaoEncontradoException("Livro não encontrado com ID: " + id);
+                    }
+                    return referenciaInexistente(dto.getAutorId(), dto.getGeneroId());
+                });
+        Livro livro = carregado.livro();
+        LivroResponseDTO anterior = mapper.toResponse(livro);
 
-        mapper.map(dto, livro);
-        livro.setAutor(autor);
-        livro.setGenero(genero);
+        mapper.atualizar(dto, livro);
+        livro.setIsbn(isbn);
+        livro.setAutor(carregado.autor());
+        livro.setGenero(carregado.genero());
 
-        Livro livroAtualizado = livroRepository.save(livro);
-        return mapper.map(livroAtualizado, LivroResponseDTO.class);
+        Livro livroAtualizado;
+        try {
+            // Flush aqui (e não no commit) para o ISBN duplicado virar 409 em vez de erro na saída
+            livroAtualizado = livroRepository.saveAndFlush(livro);
+        } catch (DataIntegrityViolationException ex) {
+            throw isbnDuplicado(ex, "Já existe outro livro com este ISBN: " + isbn);
+        }
+        LivroResponseDTO response = mapper.toResponse(livroAtualizado);
+        eventPublisher.publishEvent(new LivroAlteradoEvent(anterior, response));
+        return response;
     }
 
     @Transactional
     public void deletar(Long id) {
-        if (!livroRepository.existsById(id)) {
-            throw new LivroNaoEncontradoException("Livro não encontrado com ID: " + id);
+        Livro livro = livroRepository.findDetalhadoById(id)
+                .orElseThrow(() -> new LivroNaoEncontradoException("Livro não encontrado com ID: " + id));
+        LivroResponseDTO anterior = mapper.toResponse(livro);
+        livroRepository.delete(livro);
+        eventPublisher.publishEvent(new LivroAlteradoEvent(anterior, null));
+    }
+
+    private CursorPage<LivroResponseDTO> listarPorId(String cursor, Integer size,
+                                                     BiFunction<Long, Pageable, List<Livro>> consulta) {
+        int tamanho = Paginacao.tamanho(size);
+        long afterId = cursor == null ? 0L : Paginacao.decode(cursor, SORT_ID).id();
+        List<Livro> livros = consulta.apply(afterId, Paginacao.limite(tamanho));
+        return Paginacao.pagina(livros, tamanho,
+                mapper::toResponse,
+                livro -> Paginacao.encode(SORT_ID, null, livro.getId()));
+    }
+
+    private static String versaoDe(VersaoColecao versao) {
+        return versao.getTotal() + "@" + versao.getUltimaAtualizacao();
+    }
+
+    private Integer parseAno(String valor) {
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException ex) {
+            throw new ParametroInvalidoException("Cursor inválido");
         }
-        livroRepository.deleteById(id);
     }
 
-    private void validarIsbnUnico(String isbn, Long id) {
-        if (id == null) {
-            if (livroRepository.existsByIsbnIgnoreCase(isbn)) {
-                throw new IsbnExistenteException("Já existe um livro com este ISBN: " + isbn);
-            }
-        } else {
-            if (livroRepository.existsByIsbnIgnoreCaseAndIdNot(isbn, id)) {
-                throw new IsbnExistenteException("Já existe outro livro com este ISBN: " + isbn);
-            }
+    private static String isbnCanonico(String valor) {
+        String isbn = Isbn.normalizar(valor);
+        if (isbn == null) {
+            throw new ParametroInvalidoException("ISBN inválido: " + valor);
         }
+        return isbn;
     }
 
-    private Autor buscarAutor(Long autorId) {
-        return autorRepository.findById(autorId)
-                .orElseThrow(() -> new AutorNaoEncontradoException("Autor não encontrado com ID: " + autorId));
+    /** Caminho de erro do cadastro/atualização: descobre qual das referências não existe. */
+    private RuntimeException referenciaInexistente(Long autorId, Long generoId) {
+        if (!autorRepository.existsById(autorId)) {
+            return new AutorNaoEncontradoException("Autor não encontrado com ID: " + autorId);
+        }
+        return new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + generoId);
     }
 
-    private Genero buscarGenero(Long generoId) {
-        return generoRepository.findById(generoId)
-                .orElseThrow(() -> new GeneroNaoEncontradoException("Gênero não encontrado com ID: " + generoId));
+    private static RuntimeException isbnDuplicado(DataIntegrityViolationException ex, String mensagem) {
+        // O único índice único de livro além da PK é o de ISBN; FK violada (autor/gênero
+        // removido no meio da gravação) segue como erro de integridade
+        return ViolacaoIntegridade.chaveDuplicada(ex) ? new IsbnExistenteException(mensagem) : ex;
     }
-}
\ No newline at end of file
+}
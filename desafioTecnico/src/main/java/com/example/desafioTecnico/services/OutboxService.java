@@ -0,0 +1,89 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.EventoPublicado;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.events.LoteOutboxGravado;
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import com.example.desafioTecnico.models.enums.TipoEvento;
+import com.example.desafioTecnico.repositories.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Transforma os eventos de alteração de livro, autor e gênero em linhas do outbox, gravadas na
+ * transação de quem publicou: o evento existe se e somente se a alteração foi confirmada.
+ * <p>
+ * Na escrita isso custa um INSERT, qualquer que seja o número de destinos; a entrega fica com o
+ * {@link RelayOutboxService}, que recebe o evento depois do commit. Um lote da importação também
+ * custa um INSERT só, com uma linha por livro.
+ */
+@Service
+public class OutboxService {
+
+    private final EventoOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxService(EventoOutboxRepository repository, ObjectMapper objectMapper,
+                         ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener
+    public void onLivroAlterado(LivroAlteradoEvent event) {
+        if (event.anterior() == null) {
+            registrar(TipoEvento.LIVRO_CRIADO, event.atual().getId(), event);
+        } else {
+            registrar(event.atual() == null ? TipoEvento.LIVRO_REMOVIDO : TipoEvento.LIVRO_ATUALIZADO,
+                    event.anterior().getId(), event);
+        }
+    }
+
+    /** Cada linha leva o mesmo {@code LIVRO_CRIADO} do cadastro avulso; o relay as acha pela varredura. */
+    @EventListener
+    public void onLivrosImportados(LivrosImportadosEvent event) {
+        Instant agora = Instant.now();
+        List<EventoOutbox> eventos = event.livros().stream()
+                .map(livro -> new EventoOutbox(TipoEvento.LIVRO_CRIADO, livro.getId(),
+                        payload(new LivroAlteradoEvent(null, livro)), agora))
+                .toList();
+        repository.inserirEmLote(eventos);
+        eventPublisher.publishEvent(new LoteOutboxGravado(eventos.size()));
+    }
+
+    @EventListener
+    public void onAutorAlterado(AutorAlteradoEvent event) {
+        registrar(event.atual() == null ? TipoEvento.AUTOR_REMOVIDO : TipoEvento.AUTOR_ATUALIZADO, event.id(), event);
+    }
+
+    @EventListener
+    public void onGeneroAlterado(GeneroAlteradoEvent event) {
+        registrar(event.atual() == null ? TipoEvento.GENERO_REMOVIDO : TipoEvento.GENERO_ATUALIZADO, event.id(), event);
+    }
+
+    private void registrar(TipoEvento tipo, Long agregadoId, Object evento) {
+        // Fora de transação (fim da remoção em segundo plano) o save confirma sozinho
+        EventoOutbox salvo = repository.save(new EventoOutbox(tipo, agregadoId, payload(evento), Instant.now()));
+        eventPublisher.publishEvent(EventoPublicado.de(salvo));
+    }
+
+    private String payload(Object evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
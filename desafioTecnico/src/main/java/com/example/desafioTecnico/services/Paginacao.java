@@ -0,0 +1,76 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.models.dto.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilitários de paginação por cursor (keyset) usados pelos serviços de listagem.
+ * O cursor é opaco para o cliente: codifica a ordenação, o valor da chave de
+ * ordenação e o id do último item entregue.
+ */
+final class Paginacao {
+
+    static final int TAMANHO_PADRAO = 20;
+    static final int TAMANHO_MAXIMO = 100;
+
+    private static final String NULO = "~";
+    private static final String VALOR = "=";
+
+    private Paginacao() {
+    }
+
+    /** Posição decodificada de um cursor; {@code valor} é nulo quando a chave de ordenação era nula. */
+    record Cursor(String valor, long id) {
+    }
+
+    static int tamanho(Integer size) {
+        if (size == null) {
+            return TAMANHO_PADRAO;
+        }
+        if (size < 1) {
+            throw new ParametroInvalidoException("O tamanho da página deve ser maior que zero");
+        }
+        return Math.min(size, TAMANHO_MAXIMO);
+    }
+
+    /** Busca um item a mais que o tamanho da página para saber se existe próxima página. */
+    static Pageable limite(int tamanho) {
+        return PageRequest.of(0, tamanho + 1);
+    }
+
+    static String encode(String sort, Object valor, Long id) {
+        String raw = sort + ":" + id + ":" + (valor == null ? NULO : VALOR + valor);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor, String sort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = raw.split(":", 3);
+            if (partes.length != 3 || !partes[0].equals(sort)) {
+                throw new ParametroInvalidoException("Cursor inválido para a ordenação: " + sort);
+            }
+            long id = Long.parseLong(partes[1]);
+            String valor = partes[2].startsWith(VALOR) ? partes[2].substring(VALOR.length()) : null;
+            return new Cursor(valor, id);
+        } catch (IllegalArgumentException ex) {
+            throw new ParametroInvalidoException("Cursor inválido");
+        }
+    }
+
+    static <E, T> CursorPage<T> pagina(List<E> linhas, int tamanho,
+                                        Function<E, T> mapper,
+                                        Function<E, String> cursorDe) {
+        boolean temMais = linhas.size() > tamanho;
+        List<E> itens = temMais ? linhas.subList(0, tamanho) : linhas;
+        String next = temMais ? cursorDe.apply(itens.get(itens.size() - 1)) : null;
+        return new CursorPage<>(itens.stream().map(mapper).toList(), next);
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.DestinoEventos;
+import com.example.desafioTecnico.events.EventoPublicado;
+import com.example.desafioTecnico.events.LoteOutboxGravado;
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import com.example.desafioTecnico.repositories.EventoOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega os eventos do outbox aos {@link DestinoEventos}, pelo menos uma vez.
+ * <p>
+ * Cada evento gravado entra, depois do commit, numa fila em memória limitada a
+ * {@code app.outbox.fila}; com a fila cheia ele é descartado dali e fica só na tabela. Uma
+ * única thread tira da fila lotes de até {@code app.outbox.lote}, entrega o lote a cada destino
+ * e só então apaga as linhas. Lote recusado por um destino fica retido e é tentado de novo, só
+ * nos destinos que faltam, depois de uma espera crescente; enquanto isso a thread não bloqueia e
+ * segue varrendo a tabela a cada {@code app.outbox.varredura-ms} atrás do que não passou pela
+ * fila: descartados, gravados antes de um reinício ou entregues sem conseguir apagar.
+ * <p>
+ * A ordem de entrega é a dos commits, exceto para o que volta pela varredura. O atraso do
+ * evento pendente mais antigo é medido à parte, pelo agendador, e não depende do relay.
+ */
+@Slf4j
+@Service
+public class RelayOutboxService implements MeterBinder, DisposableBean {
+
+    static final Duration ESPERA_INICIAL = Duration.ofMillis(500);
+    static final Duration ESPERA_MAXIMA = Duration.ofSeconds(30);
+
+    private final EventoOutboxRepository repository;
+    private final List<DestinoEventos> destinos;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final long intervaloVarreduraMs;
+    private final BlockingQueue<EventoPublicado> fila;
+    // Ids na fila ou sendo entregues, que a varredura não deve enfileirar de novo
+    private final Set<Long> emAndamento = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Lote recusado à espera de nova tentativa e os destinos que já o receberam; só a thread do relay mexe
+    private List<EventoPublicado> retido = List.of();
+    private final Set<String> retidoEntregueA = new HashSet<>();
+    private Duration esperaRetido = ESPERA_INICIAL;
+    private long retomarEm;
+
+    private volatile boolean rodando;
+    private volatile long ultimaVarredura;
+    private volatile Instant pendenteMaisAntigo;
+
+    private final Map<String, Counter> entregues = new HashMap<>();
+    private final Map<String, Counter> falhas = new HashMap<>();
+    private Counter descartados;
+    private Counter recuperados;
+    private Timer atrasoEntrega;
+
+    public RelayOutboxService(EventoOutboxRepository repository,
+                              List<DestinoEventos> destinos,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.outbox.lote:100}") int tamanhoLote,
+                              @Value("${app.outbox.fila:1000}") int capacidadeFila,
+                              @Value("${app.outbox.varredura-ms:5000}") long intervaloVarreduraMs) {
+        this.repository = repository;
+        this.destinos = destinos;
+        // Sem readOnly: a varredura lê o primário, não uma réplica que ainda não tem os últimos eventos
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloVarreduraMs = intervaloVarreduraMs;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    /** Caminho rápido: o evento acabou de ser confirmado e vai direto para a fila, sem esperar a varredura. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventoGravado(EventoPublicado evento) {
+        enfileirar(evento);
+    }
+
+    /** Lote gravado sem ids, que não passa pela fila: a varredura o acha sem esperar o intervalo. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLoteGravado(LoteOutboxGravado lote) {
+        if (rodando) {
+            varrer();
+        }
+    }
+
+    /** Começa a entregar, inclusive o que ficou na tabela de antes do reinício. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (destinos.isEmpty()) {
+            log.warn("Nenhum destino de eventos configurado; os eventos ficam acumulados no outbox");
+            return;
+        }
+        rodando = true;
+        executor.execute(this::executar);
+        log.info("Relay do outbox entregando para {}", destinos.stream().map(DestinoEventos::nome).toList());
+    }
+
+    @Override
+    public void destroy() {
+        rodando = false;
+        executor.shutdownNow();
+    }
+
+    /** Laço da thread do relay. */
+    void executar() {
+        List<EventoPublicado> lote = new ArrayList<>(tamanhoLote);
+        while (rodando) {
+            try {
+                if (System.currentTimeMillis() - ultimaVarredura >= intervaloVarreduraMs) {
+                    varrer();
+                }
+                if (!retido.isEmpty()) {
+                    long espera = retomarEm - System.currentTimeMillis();
+                    if (espera > 0) {
+                        // Acorda a tempo da próxima varredura, que não para por causa do destino
+                        Thread.sleep(Math.min(espera, intervaloVarreduraMs));
+                    } else {
+                        entregar(retido);
+                    }
+                    continue;
+                }
+                EventoPublicado primeiro = fila.poll(intervaloVarreduraMs, TimeUnit.MILLISECONDS);
+                if (primeiro != null) {
+                    lote.add(primeiro);
+                    fila.drainTo(lote, tamanhoLote - 1);
+                    entregar(lote);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // Banco fora do ar na varredura, por exemplo: tenta de novo no próximo intervalo
+                log.error("Falha no relay do outbox", ex);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    boolean enfileirar(EventoPublicado evento) {
+        if (!emAndamento.add(evento.id())) {
+            return true;
+        }
+        if (!fila.offer(evento)) {
+            emAndamento.remove(evento.id());
+            incrementar(descartados, 1);
+            return false;
+        }
+        return true;
+    }
+
+    /** Enfileira os eventos pendentes na tabela que não estão na fila nem sendo entregues. */
+    void varrer() {
+        ultimaVarredura = System.currentTimeMillis();
+        int vagas = fila.remainingCapacity();
+        if (vagas == 0) {
+            return;
+        }
+        // Os em andamento também voltam da consulta; somá-los garante que o resto preencha as vagas
+        int limite = vagas + emAndamento.size();
+        List<EventoOutbox> pendentes = transactionTemplate.execute(
+                status -> repository.findPendentes(PageRequest.ofSize(limite)));
+        int enfileirados = 0;
+        for (EventoOutbox pendente : pendentes) {
+            if (emAndamento.contains(pendente.getId())) {
+                continue;
+            }
+            if (!enfileirar(EventoPublicado.de(pendente))) {
+                break;
+            }
+            enfileirados++;
+        }
+        if (enfileirados > 0) {
+            incrementar(recuperados, enfileirados);
+            log.info("Varredura do outbox: {} eventos pendentes reenfileirados", enfileirados);
+        }
+    }
+
+    /** Idade do evento pendente mais antigo, fora da thread do relay: segue medindo com o destino parado. */
+    @Scheduled(fixedDelayString = "${app.outbox.varredura-ms:5000}")
+    public void medirAtraso() {
+        pendenteMaisAntigo = transactionTemplate.execute(status -> repository.findCriadoEmMaisAntigo());
+    }
+
+    /**
+     * Entrega o lote aos destinos que ainda não o receberam e só então apaga as linhas. Se um
+     * destino recusar, o lote fica retido para nova tentativa depois de uma espera que dobra até
+     * {@link #ESPERA_MAXIMA}, e o método volta sem bloquear.
+     *
+     * @return se o lote chegou a todos os destinos
+     */
+    boolean entregar(List<EventoPublicado> lote) {
+        for (DestinoEventos destino : destinos) {
+            if (retidoEntregueA.contains(destino.nome())) {
+                continue;
+            }
+            try {
+                destino.publicar(lote);
+                incrementar(entregues.get(destino.nome()), lote.size());
+                retidoEntregueA.add(destino.nome());
+            } catch (RuntimeException ex) {
+                incrementar(falhas.get(destino.nome()), 1);
+                log.warn("Destino {} recusou {} eventos, nova tentativa em {} ms: {}",
+                        destino.nome(), lote.size(), esperaRetido.toMillis(), ex.getMessage());
+                reter(lote);
+                return false;
+            }
+        }
+        retido = List.of();
+        retidoEntregueA.clear();
+        esperaRetido = ESPERA_INICIAL;
+
+        List<Long> ids = lote.stream().map(EventoPublicado::id).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteByIdIn(ids));
+        } catch (RuntimeException ex) {
+            // Entregues, mas ainda na tabela: a varredura entrega de novo
+            log.warn("Falha ao apagar {} eventos entregues do outbox: {}", ids.size(), ex.getMessage());
+        }
+        Instant agora = Instant.now();
+        for (EventoPublicado evento : lote) {
+            if (atrasoEntrega != null) {
+                atrasoEntrega.record(Duration.between(evento.criadoEm(), agora));
+            }
+        }
+        ids.forEach(emAndamento::remove);
+        return true;
+    }
+
+    private void reter(List<EventoPublicado> lote) {
+        // Cópia: o laço reaproveita a lista do lote
+        retido = List.copyOf(lote);
+        retomarEm = System.currentTimeMillis() + esperaRetido.toMillis();
+        Duration dobro = esperaRetido.multipliedBy(2);
+        esperaRetido = dobro.compareTo(ESPERA_MAXIMA) < 0 ? dobro : ESPERA_MAXIMA;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DestinoEventos destino : destinos) {
+            entregues.put(destino.nome(), Counter.builder("outbox.eventos.entregues")
+                    .description("Eventos do outbox entregues por destino")
+                    .tag("destino", destino.nome())
+                    .register(registry));
+            falhas.put(destino.nome(), Counter.builder("outbox.destino.falhas")
+                    .description("Entregas de lote recusadas pelo destino e repetidas")
+                    .tag("destino", destino.nome())
+                    .register(registry));
+        }
+        descartados = Counter.builder("outbox.fila.descartados")
+                .description("Eventos que não couberam na fila e ficaram para a varredura")
+                .register(registry);
+        recuperados = Counter.builder("outbox.varredura.recuperados")
+                .description("Eventos pendentes enfileirados pela varredura da tabela")
+                .register(registry);
+        atrasoEntrega = Timer.builder("outbox.entrega.atraso")
+                .description("Tempo entre a gravação do evento e a entrega a todos os destinos")
+                .register(registry);
+        Gauge.builder("outbox.fila", fila, BlockingQueue::size)
+                .description("Eventos na fila em memória")
+                .register(registry);
+        Gauge.builder("outbox.atraso", this, RelayOutboxService::atrasoSegundos)
+                .description("Idade do evento pendente mais antigo na última medição, em segundos")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private double atrasoSegundos() {
+        Instant maisAntigo = pendenteMaisAntigo;
+        return maisAntigo == null ? 0 : Duration.between(maisAntigo, Instant.now()).toMillis() / 1000.0;
+    }
+
+    private static void incrementar(Counter contador, double quantidade) {
+        if (contador != null) {
+            contador.increment(quantidade);
+        }
+    }
+}
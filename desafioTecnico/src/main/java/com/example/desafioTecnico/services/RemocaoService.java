@@ -0,0 +1,226 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.RemocaoAgendadaEvent;
+import com.example.desafioTecnico.exception.RemocaoNaoEncontradaException;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
+import com.example.desafioTecnico.models.enums.EstadoRemocao;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
+import com.example.desafioTecnico.repositories.AutorRepository;
+import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Remoção de autores e gêneros em segundo plano.
+ * <p>
+ * O serviço do autor/gênero marca a linha ({@code removendo_em}), o que a esconde das leituras
+ * na hora, e agenda a remoção aqui. Depois do commit, uma única thread apaga os livros em blocos
+ * de {@code app.remocao.lote}, cada bloco na sua transação curta, e por fim a própria linha;
+ * só então sai o evento de remoção ({@code atual} nulo), um por autor/gênero.
+ * Novos livros não conseguem apontar para a linha marcada (as consultas de referência não a
+ * enxergam); se um cadastro que já a tinha lido gravar no meio do caminho, a FK barra o DELETE
+ * final e os blocos são repetidos.
+ * <p>
+ * O andamento fica só em memória, por {@link #RETENCAO} depois de terminar. Linhas que ficaram
+ * marcadas (reinício no meio, falha) são retomadas na subida da aplicação ou num novo DELETE.
+ */
+@Slf4j
+@Service
+public class RemocaoService implements DisposableBean {
+
+    static final Duration RETENCAO = Duration.ofHours(1);
+    private static final int TENTATIVAS = 3;
+
+    /** Estado mutável de uma remoção; só a thread de remoção escreve depois do agendamento. */
+    private static final class Remocao {
+        final String id = UUID.randomUUID().toString();
+        final TipoRemocao tipo;
+        final Long alvoId;
+        final LocalDateTime criadaEm = LocalDateTime.now();
+        volatile EstadoRemocao estado = EstadoRemocao.PENDENTE;
+        volatile long livrosRemovidos;
+        volatile Long totalLivros;
+        volatile LocalDateTime concluidaEm;
+        volatile String erro;
+
+        Remocao(TipoRemocao tipo, Long alvoId) {
+            this.tipo = tipo;
+            this.alvoId = alvoId;
+        }
+
+        boolean ativa() {
+            return estado == EstadoRemocao.PENDENTE || estado == EstadoRemocao.EXECUTANDO;
+        }
+
+        RemocaoDTO dto() {
+            return new RemocaoDTO(id, tipo, alvoId, estado, livrosRemovidos, totalLivros, criadaEm, concluidaEm, erro);
+        }
+    }
+
+    private final LivroRepository livroRepository;
+    private final AutorRepository autorRepository;
+    private final GeneroRepository generoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Map<String, Remocao> remocoes = new ConcurrentHashMap<>();
+    // Uma remoção por vez: o objetivo é não disputar locks com o tráfego normal, não terminar rápido
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "remocao-lote");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RemocaoService(LivroRepository livroRepository,
+                          AutorRepository autorRepository,
+                          GeneroRepository generoRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.remocao.lote:1000}") int tamanhoLote) {
+        this.livroRepository = livroRepository;
+        this.autorRepository = autorRepository;
+        this.generoRepository = generoRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Registra a remoção de um autor/gênero já marcado. Se já houver uma em andamento para ele,
+     * devolve essa. A execução começa depois do commit da transação atual (ou na hora, fora de uma).
+     */
+    public synchronized RemocaoDTO agendar(TipoRemocao tipo, Long alvoId) {
+        LocalDateTime limite = LocalDateTime.now().minus(RETENCAO);
+        remocoes.values().removeIf(r -> r.concluidaEm != null && r.concluidaEm.isBefore(limite));
+        for (Remocao existente : remocoes.values()) {
+            if (existente.tipo == tipo && existente.alvoId.equals(alvoId) && existente.ativa()) {
+                return existente.dto();
+            }
+        }
+        Remocao remocao = new Remocao(tipo, alvoId);
+        remocoes.put(remocao.id, remocao);
+        eventPublisher.publishEvent(new RemocaoAgendadaEvent(remocao.id));
+        return remocao.dto();
+    }
+
+    public RemocaoDTO buscar(String id) {
+        Remocao remocao = remocoes.get(id);
+        if (remocao == null) {
+            throw new RemocaoNaoEncontradaException("Remoção não encontrada com ID: " + id);
+        }
+        return remocao.dto();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRemocaoAgendada(RemocaoAgendadaEvent event) {
+        executor.execute(() -> executar(event.remocaoId()));
+    }
+
+    // Transação que marcou a linha foi desfeita: a remoção nunca vai começar
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onRemocaoDesfeita(RemocaoAgendadaEvent event) {
+        remocoes.remove(event.remocaoId());
+    }
+
+    /** Retoma as remoções interrompidas por um reinício: as linhas continuam marcadas no banco. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomar() {
+        autorRepository.findIdsEmRemocao().forEach(id -> agendar(TipoRemocao.AUTOR, id));
+        generoRepository.findIdsEmRemocao().forEach(id -> agendar(TipoRemocao.GENERO, id));
+    }
+
+    /** Executa a remoção na thread atual; chamado pela thread de remoção. */
+    void executar(String remocaoId) {
+        Remocao remocao = remocoes.get(remocaoId);
+        if (remocao == null) {
+            return;
+        }
+        remocao.estado = EstadoRemocao.EXECUTANDO;
+        try {
+            remocao.totalLivros = remocao.tipo == TipoRemocao.AUTOR
+                    ? livroRepository.countByAutorId(remocao.alvoId)
+                    : livroRepository.countByGeneroId(remocao.alvoId);
+            for (int tentativa = 1; ; tentativa++) {
+                apagarLivros(remocao);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apagarAlvo(remocao));
+                    break;
+                } catch (DataIntegrityViolationException ex) {
+                    if (tentativa == TENTATIVAS) {
+                        throw ex;
+                    }
+                    log.warn("Livro gravado durante a remoção de {} {}; repetindo os blocos",
+                            remocao.tipo, remocao.alvoId);
+                }
+            }
+            remocao.estado = EstadoRemocao.CONCLUIDA;
+            log.info("Remoção de {} {} concluída: {} livros apagados",
+                    remocao.tipo, remocao.alvoId, remocao.livrosRemovidos);
+            // Fora de transação: índice de busca e estatísticas veem o estado final na hora
+            eventPublisher.publishEvent(remocao.tipo == TipoRemocao.AUTOR
+                    ? new AutorAlteradoEvent(remocao.alvoId, null)
+                    : new GeneroAlteradoEvent(remocao.alvoId, null));
+        } catch (RuntimeException ex) {
+            remocao.estado = EstadoRemocao.FALHOU;
+            remocao.erro = ex.getMessage();
+            log.error("Remoção de {} {} falhou depois de {} livros apagados; a linha continua marcada",
+                    remocao.tipo, remocao.alvoId, remocao.livrosRemovidos, ex);
+        } finally {
+            remocao.concluidaEm = LocalDateTime.now();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void apagarLivros(Remocao remocao) {
+        // Sempre o primeiro bloco: os anteriores já foram apagados
+        Pageable bloco = PageRequest.ofSize(tamanhoLote);
+        int lidos;
+        do {
+            lidos = transactionTemplate.execute(status -> {
+                List<Long> ids = remocao.tipo == TipoRemocao.AUTOR
+                        ? livroRepository.findIdsPorAutor(remocao.alvoId, bloco)
+                        : livroRepository.findIdsPorGenero(remocao.alvoId, bloco);
+                if (!ids.isEmpty()) {
+                    remocao.livrosRemovidos += livroRepository.deleteByIdIn(ids);
+                }
+                return ids.size();
+            });
+        } while (lidos == tamanhoLote);
+    }
+
+    private void apagarAlvo(Remocao remocao) {
+        if (remocao.tipo == TipoRemocao.AUTOR) {
+            autorRepository.deleteMarcado(remocao.alvoId);
+        } else {
+            generoRepository.deleteMarcado(remocao.alvoId);
+        }
+    }
+}
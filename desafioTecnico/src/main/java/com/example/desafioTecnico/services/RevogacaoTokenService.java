@@ -0,0 +1,95 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.models.entities.TokenRevogado;
+import com.example.desafioTecnico.repositories.TokenRevogadoRepository;
+import com.example.desafioTecnico.security.JwtService;
+import com.example.desafioTecnico.security.ListaRevogacao;
+import com.example.desafioTecnico.security.VerifiedToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Revogação de JWTs (logout). A revogação é gravada no banco e entra na {@link ListaRevogacao}
+ * local na hora; as demais instâncias a recebem na próxima sincronização periódica.
+ * Nenhuma requisição autenticada consulta o banco por causa disso.
+ */
+@Slf4j
+@Service
+public class RevogacaoTokenService {
+
+    // Revogações gravadas pouco antes da última leitura podem ter sido confirmadas depois dela
+    private static final Duration FOLGA_SINCRONIZACAO = Duration.ofMinutes(1);
+
+    private final TokenRevogadoRepository repository;
+    private final JwtService jwtService;
+    private final ListaRevogacao listaRevogacao;
+
+    private volatile Instant ultimaSincronizacao = Instant.EPOCH;
+
+    public RevogacaoTokenService(TokenRevogadoRepository repository, JwtService jwtService,
+                                 ListaRevogacao listaRevogacao) {
+        this.repository = repository;
+        this.jwtService = jwtService;
+        this.listaRevogacao = listaRevogacao;
+    }
+
+    /** Carrega as revogações ainda válidas antes de a aplicação aceitar requisições. */
+    @PostConstruct
+    void carregar() {
+        sincronizar();
+        log.info("{} tokens revogados carregados", listaRevogacao.tamanho());
+    }
+
+    /**
+     * Revoga o token até o seu "exp". Token já vencido não precisa de revogação;
+     * token com assinatura inválida é recusado.
+     */
+    public void revogar(String token) {
+        VerifiedToken verificado;
+        try {
+            verificado = jwtService.verify(token);
+        } catch (ExpiredJwtException ex) {
+            return;
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new BadCredentialsException("Token inválido");
+        }
+        if (verificado.jti() == null) {
+            // Emitido antes do jti existir: não há como identificá-lo, vence sozinho no "exp"
+            log.warn("Logout de '{}' com token sem jti; ele continua válido até {}",
+                    verificado.username(), verificado.expiration());
+            return;
+        }
+
+        repository.save(new TokenRevogado(verificado.jti(), verificado.username(),
+                verificado.expiration(), Instant.now()));
+        listaRevogacao.adicionar(verificado.jti(), verificado.expiration());
+    }
+
+    /** Traz revogações feitas em outras instâncias e descarta as que já venceram. */
+    @Scheduled(fixedDelayString = "${app.jwt.revogacao.sincronizacao-ms:30000}",
+            initialDelayString = "${app.jwt.revogacao.sincronizacao-ms:30000}")
+    public void sincronizar() {
+        Instant agora = Instant.now();
+        Instant desde = ultimaSincronizacao.equals(Instant.EPOCH)
+                ? Instant.EPOCH
+                : ultimaSincronizacao.minus(FOLGA_SINCRONIZACAO);
+        List<TokenRevogado> novos = repository.findByRevogadoEmAfterAndExpiraEmAfter(desde, agora);
+        novos.forEach(t -> listaRevogacao.adicionar(t.getJti(), t.getExpiraEm()));
+        ultimaSincronizacao = agora;
+
+        listaRevogacao.removerExpirados(agora);
+        int removidos = repository.deleteExpirados(agora);
+        if (removidos > 0) {
+            log.debug("{} revogações vencidas removidas", removidos);
+        }
+    }
+}
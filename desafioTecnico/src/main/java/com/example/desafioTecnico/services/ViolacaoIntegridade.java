@@ -0,0 +1,26 @@
+package com.example.desafioTecnico.services;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+/** Classifica violações de integridade pelo erro do banco (MySQL em produção, H2 nos testes). */
+final class ViolacaoIntegridade {
+
+    private static final int MYSQL_CHAVE_DUPLICADA = 1062;
+    private static final String SQLSTATE_CHAVE_DUPLICADA = "23505";
+
+    private ViolacaoIntegridade() {
+    }
+
+    /** {@code true} quando a violação veio de um índice único (e não de FK ou coluna obrigatória). */
+    static boolean chaveDuplicada(DataIntegrityViolationException ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sql) {
+                return sql.getErrorCode() == MYSQL_CHAVE_DUPLICADA
+                        || SQLSTATE_CHAVE_DUPLICADA.equals(sql.getSQLState());
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * As roles saíram da tabela usuario_roles (coleção de elementos) para a coluna de bits
+ * usuario.roles. Copia as roles de quem ainda está com a coluna zerada e remove a tabela
+ * antiga; não faz nada quando ela não existe (bancos criados já pelas migrações).
+ * O Flyway a acha pelo pacote, em {@code classpath:db/migration}, junto das migrações SQL.
+ */
+@Slf4j
+public class V3__RolesLegados extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            if (!existeTabelaLegada(statement)) {
+                return;
+            }
+            int atualizados = statement.executeUpdate("""
+                    update usuario u set u.roles = (
+                        select coalesce(sum(case r.roles when 'LEITURA' then 1 when 'ESCRITA' then 2 else 0 end), 0)
+                        from usuario_roles r where r.usuario_id = u.id)
+                    where u.roles = 0""");
+            statement.executeUpdate("drop table usuario_roles");
+            log.info("Roles de {} usuários copiadas de usuario_roles para usuario.roles; tabela antiga removida",
+                    atualizados);
+        }
+    }
+
+    private static boolean existeTabelaLegada(Statement statement) throws SQLException {
+        try (ResultSet resultado = statement.executeQuery("""
+                select count(*) from information_schema.tables
+                where table_schema = database() and table_name = 'usuario_roles'""")) {
+            return resultado.next() && resultado.getInt(1) > 0;
+        }
+    }
+}
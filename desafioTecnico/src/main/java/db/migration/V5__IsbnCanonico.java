@@ -0,0 +1,132 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Regrava os ISBNs na forma canônica (ISBN-13 só com dígitos) e remove
+ * a coluna gerada isbn_normalizado (V2), que deixa de ser necessária: a busca passa a ser por
+ * igualdade no próprio isbn. ISBNs inválidos e os que colidiriam com outro livro já gravado na
+ * forma canônica ficam como estão e vão para o log; a versão dos alterados sobe para as ETags mudarem.
+ * <p>
+ * A normalização é uma cópia da de {@code Isbn} na época desta versão, e não uma chamada a ela:
+ * a migração não pode mudar de comportamento quando o código da aplicação mudar.
+ */
+@Slf4j
+public class V5__IsbnCanonico extends BaseJavaMigration {
+
+    private static final int LOTE = 500;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Set<String> gravados = new HashSet<>();
+        Map<Long, String> alterar = new LinkedHashMap<>();
+        int invalidos = 0;
+        try (Statement statement = context.getConnection().createStatement();
+             ResultSet livros = statement.executeQuery("select id, isbn from livro")) {
+            while (livros.next()) {
+                long id = livros.getLong(1);
+                String isbn = livros.getString(2);
+                gravados.add(isbn);
+                String canonico = canonico(isbn);
+                if (canonico == null) {
+                    invalidos++;
+                    log.warn("Livro {} com ISBN inválido mantido como está: {}", id, isbn);
+                } else if (!canonico.equals(isbn)) {
+                    alterar.put(id, canonico);
+                }
+            }
+        }
+
+        int alterados = 0;
+        try (PreparedStatement update = context.getConnection().prepareStatement(
+                "update livro set isbn = ?, versao = versao + 1 where id = ?")) {
+            for (Map.Entry<Long, String> livro : alterar.entrySet()) {
+                if (!gravados.add(livro.getValue())) {
+                    log.warn("Livro {} mantido com o ISBN original: outro livro já tem o ISBN {}",
+                            livro.getKey(), livro.getValue());
+                    continue;
+                }
+                update.setString(1, livro.getValue());
+                update.setLong(2, livro.getKey());
+                update.addBatch();
+                if (++alterados % LOTE == 0) {
+                    update.executeBatch();
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.executeUpdate("alter table livro drop column isbn_normalizado");
+        }
+        log.info("ISBNs na forma canônica: {} livros alterados, {} inválidos mantidos", alterados, invalidos);
+    }
+
+    /** ISBN-13 só com dígitos, ou {@code null} se não for um ISBN-10/13 com dígito verificador válido. */
+    static String canonico(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        long digitos = 0;
+        int quantidade = 0;
+        // ISBN-10: somar as somas parciais equivale aos pesos 10..1
+        int soma = 0;
+        int somaPonderada10 = 0;
+        // ISBN-13: pesos 1 e 3 alternados
+        int somaPonderada13 = 0;
+        boolean terminaEmX = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            int digito;
+            if (c >= '0' && c <= '9' && !terminaEmX) {
+                digito = c - '0';
+                digitos = digitos * 10 + digito;
+            } else if ((c == 'X' || c == 'x') && quantidade == 9) {
+                digito = 10;
+                terminaEmX = true;
+            } else {
+                return null;
+            }
+            if (++quantidade > 13) {
+                return null;
+            }
+            soma += digito;
+            somaPonderada10 += soma;
+            somaPonderada13 += quantidade % 2 == 1 ? digito : 3 * digito;
+        }
+        if (quantidade == 13) {
+            long prefixo = digitos / 10_000_000_000L;
+            return somaPonderada13 % 10 == 0 && (prefixo == 978 || prefixo == 979) ? Long.toString(digitos) : null;
+        }
+        if (quantidade == 10 && somaPonderada10 % 11 == 0) {
+            long doze = 978_000_000_000L + (terminaEmX ? digitos : digitos / 10);
+            return Long.toString(doze * 10 + verificador13(doze));
+        }
+        return null;
+    }
+
+    private static int verificador13(long doze) {
+        int soma = 0;
+        // Da direita para a esquerda: o 12º dígito tem peso 3
+        for (int i = 0; i < 12; i++) {
+            int digito = (int) (doze % 10);
+            soma += i % 2 == 0 ? 3 * digito : digito;
+            doze /= 10;
+        }
+        return (10 - soma % 10) % 10;
+    }
+}
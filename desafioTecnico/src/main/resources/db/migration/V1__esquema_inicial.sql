@@ -0,0 +1,63 @@
+-- Esquema como o ddl-auto=update o deixava antes das migrações versionadas.
+-- Bancos que já existiam entram como baseline nesta versão e não executam este script.
+
+create table autor (
+    id              bigint       not null auto_increment,
+    nome            varchar(100) not null,
+    biografia       text,
+    data_nascimento datetime(6),
+    versao          bigint       not null default 0,
+    criado_em       datetime(6),
+    atualizado_em   datetime(6),
+    primary key (id)
+) engine = InnoDB;
+
+create table genero (
+    id            bigint       not null auto_increment,
+    nome          varchar(100) not null,
+    descricao     text,
+    versao        bigint       not null default 0,
+    criado_em     datetime(6),
+    atualizado_em datetime(6),
+    primary key (id),
+    constraint uk_genero_nome unique (nome)
+) engine = InnoDB;
+
+create table livro (
+    id             bigint       not null auto_increment,
+    titulo         varchar(255) not null,
+    isbn           varchar(20)  not null,
+    editora        varchar(20)  not null,
+    ano_publicacao integer,
+    genero_id      bigint       not null,
+    autor_id       bigint       not null,
+    versao         bigint       not null default 0,
+    criado_em      datetime(6),
+    atualizado_em  datetime(6),
+    primary key (id),
+    constraint uk_livro_isbn unique (isbn),
+    constraint fk_livro_genero foreign key (genero_id) references genero (id),
+    constraint fk_livro_autor foreign key (autor_id) references autor (id)
+) engine = InnoDB;
+
+create index idx_livro_autor_id on livro (autor_id, id);
+create index idx_livro_genero_id on livro (genero_id, id);
+
+create table usuario (
+    id       bigint       not null auto_increment,
+    username varchar(255),
+    password varchar(255),
+    roles    int          not null default 0,
+    primary key (id)
+) engine = InnoDB;
+
+create table token_revogado (
+    jti         varchar(36)  not null,
+    username    varchar(255) not null,
+    expira_em   datetime(6)  not null,
+    revogado_em datetime(6)  not null,
+    primary key (jti)
+) engine = InnoDB;
+
+create index idx_token_revogado_revogado_em on token_revogado (revogado_em);
+create index idx_token_revogado_expira_em on token_revogado (expira_em);
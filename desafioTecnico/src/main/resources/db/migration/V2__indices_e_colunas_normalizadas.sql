@@ -0,0 +1,28 @@
+-- Buscas sem diferenciar maiúsculas: lower(col) = lower(?) não usa o índice de col, então cada
+-- tabela ganha uma coluna gerada com o valor em minúsculas e o índice fica nela. As consultas
+-- comparam a coluna gerada com lower(:parametro).
+
+alter table livro
+    add column isbn_normalizado varchar(20) generated always as (lower(isbn)) virtual;
+create unique index uk_livro_isbn_normalizado on livro (isbn_normalizado);
+
+alter table autor
+    add column nome_normalizado varchar(100) generated always as (lower(nome)) virtual;
+create index idx_autor_nome_normalizado on autor (nome_normalizado);
+
+alter table genero
+    add column nome_normalizado varchar(100) generated always as (lower(nome)) virtual;
+create unique index uk_genero_nome_normalizado on genero (nome_normalizado);
+
+-- Paginação por cursor: ordenação + id no mesmo índice (o InnoDB já acrescenta o id no fim)
+create index idx_livro_titulo on livro (titulo);
+create index idx_livro_ano_publicacao on livro (ano_publicacao);
+create index idx_autor_nome on autor (nome);
+
+-- max(atualizado_em) das ETags de coleção lido direto do fim do índice
+create index idx_livro_atualizado_em on livro (atualizado_em);
+create index idx_autor_atualizado_em on autor (atualizado_em);
+create index idx_genero_atualizado_em on genero (atualizado_em);
+
+-- Login: uma busca por username a cada tentativa
+create index idx_usuario_username on usuario (username);
@@ -0,0 +1,6 @@
+-- Remoção de autores e gêneros em segundo plano: a linha é marcada na hora (e some das
+-- leituras, que filtram removendo_em is null) e os livros são apagados em blocos, cada um
+-- na sua transação, antes da própria linha.
+
+alter table autor add column removendo_em datetime(6);
+alter table genero add column removendo_em datetime(6);
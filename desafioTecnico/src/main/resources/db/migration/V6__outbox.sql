@@ -0,0 +1,11 @@
+-- Outbox dos eventos de alteração do catálogo: cada linha é gravada na mesma transação da
+-- alteração e apagada depois de entregue a todos os destinos. A varredura lê pela PK.
+
+create table evento_outbox (
+    id          bigint      not null auto_increment,
+    tipo        varchar(20) not null,
+    agregado_id bigint      not null,
+    payload     text        not null,
+    criado_em   datetime(6) not null,
+    primary key (id)
+) engine = InnoDB;
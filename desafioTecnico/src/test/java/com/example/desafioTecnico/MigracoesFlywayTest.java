@@ -0,0 +1,48 @@
+package com.example.desafioTecnico;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aplica a cadeia inteira do Flyway (SQL e Java) num MySQL de verdade e deixa o Hibernate validar
+ * as entidades contra o esquema resultante: uma coluna esquecida numa migração derruba o contexto.
+ * Precisa de Docker; sem ele o teste é ignorado.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MigracoesFlywayTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.4");
+
+    @Autowired private Flyway flyway;
+
+    @Test
+    void migracoes_devemSerAplicadasDoV1AoUltimo_eBaterComAsEntidades() {
+        MigrationInfo[] aplicadas = flyway.info().applied();
+
+        assertEquals(flyway.info().all().length, aplicadas.length);
+        assertEquals("1", aplicadas[0].getVersion().getVersion());
+        assertTrue(Arrays.stream(aplicadas).noneMatch(migracao -> migracao.getState().isFailed()),
+                () -> Arrays.toString(aplicadas));
+        assertTrue(Arrays.stream(aplicadas).anyMatch(migracao -> "IsbnCanonico".equals(migracao.getDescription())),
+                "Migrações Java em db.migration não foram achadas");
+    }
+}
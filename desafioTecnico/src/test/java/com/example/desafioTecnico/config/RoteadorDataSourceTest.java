@@ -0,0 +1,137 @@
+package com.example.desafioTecnico.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Dois H2 em memória fazem o papel de primário e réplica; cada um responde o próprio nome. */
+class RoteadorDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private DataSource primario;
+    private ReplicaControlada replica;
+
+    @BeforeEach
+    void setUp() {
+        primario = banco("primario");
+        replica = new ReplicaControlada(banco("replica"));
+    }
+
+    @Test
+    void leituras_devemIrParaReplica_eEscritasParaOPrimario() {
+        RoteadorDataSource roteador = roteador(Duration.ofSeconds(2), 0L);
+        roteador.verificar();
+
+        assertEquals("replica", origem(roteador, true));
+        assertEquals("primario", origem(roteador, false));
+        assertEquals(1.0, registry.get("db.roteamento.conexoes").tag("destino", "replica").counter().count());
+        assertEquals(1.0, registry.get("db.replica.disponivel").gauge().value());
+    }
+
+    @Test
+    void leituras_devemFicarNoPrimario_quandoReplicaAtrasada() {
+        RoteadorDataSource roteador = roteador(Duration.ofSeconds(2), 10_000L);
+        roteador.verificar();
+
+        assertEquals("primario", origem(roteador, true));
+        assertEquals(1.0, registry.get("db.replica.desvios").tag("motivo", "atrasada").counter().count());
+        assertEquals(10.0, registry.get("db.replica.atraso").gauge().value());
+        assertEquals(0.0, registry.get("db.replica.disponivel").gauge().value());
+    }
+
+    @Test
+    void verificar_deveCompararEmMilissegundos_quandoLimiteFracionado() {
+        // Com o limite truncado para segundos, 1,5 s viraria 1 s e 1,2 s de atraso desviaria as leituras
+        assertEquals("replica", origemComAtraso(Duration.ofMillis(1500), 1_200L));
+        assertEquals("primario", origemComAtraso(Duration.ofMillis(1500), 2_000L));
+    }
+
+    @Test
+    void leituras_devemFicarNoPrimario_quandoReplicaCai() {
+        RoteadorDataSource roteador = roteador(Duration.ofSeconds(2), 0L);
+        roteador.verificar();
+        replica.fora = true;
+
+        // A falha ao abrir a conexão desvia na hora e deixa a réplica de lado até a próxima verificação
+        assertEquals("primario", origem(roteador, true));
+        assertEquals("primario", origem(roteador, true));
+        assertEquals(1.0, registry.get("db.replica.desvios").tag("motivo", "erro").counter().count());
+        assertEquals(1.0, registry.get("db.replica.desvios").tag("motivo", "indisponivel").counter().count());
+
+        replica.fora = false;
+        roteador.verificar();
+        assertEquals("replica", origem(roteador, true));
+    }
+
+    @Test
+    void leituras_devemFicarNoPrimario_antesDaPrimeiraVerificacao() {
+        RoteadorDataSource roteador = roteador(Duration.ofSeconds(2), 0L);
+
+        assertEquals("primario", origem(roteador, true));
+    }
+
+    private RoteadorDataSource roteador(Duration atrasoMaximo, Long atraso) {
+        RoteadorDataSource roteador = new RoteadorDataSource(primario, replica, atrasoMaximo) {
+            @Override
+            Long lerAtrasoMs(Connection conexao) {
+                return atraso;
+            }
+        };
+        roteador.bindTo(registry);
+        return roteador;
+    }
+
+    private String origemComAtraso(Duration atrasoMaximo, long atraso) {
+        RoteadorDataSource roteador = roteador(atrasoMaximo, atraso);
+        roteador.verificar();
+        return origem(roteador, true);
+    }
+
+    /** Nome do banco que atendeu uma transação, pelo mesmo caminho da aplicação (proxy preguiçoso). */
+    private static String origem(RoteadorDataSource roteador, boolean somenteLeitura) {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(roteador);
+        TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transacao.setReadOnly(somenteLeitura);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        return transacao.execute(status -> jdbc.queryForObject("select nome from origem", String.class));
+    }
+
+    private static DataSource banco(String nome) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists origem (nome varchar(20))");
+        jdbc.update("delete from origem");
+        jdbc.update("insert into origem (nome) values (?)", nome);
+        return dataSource;
+    }
+
+    private static final class ReplicaControlada extends DelegatingDataSource {
+        volatile boolean fora;
+
+        ReplicaControlada(DataSource alvo) {
+            super(alvo);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (fora) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
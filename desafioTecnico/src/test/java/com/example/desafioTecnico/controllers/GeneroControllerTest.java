@@ -0,0 +1,112 @@
+package com.example.desafioTecnico.controllers;
+
+import com.example.desafioTecnico.config.CacheConfig;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.models.dto.GeneroCadastroDTO;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.VersaoColecao;
+import com.example.desafioTecnico.services.GeneroService;
+import com.example.desafioTecnico.services.LivroService;
+import com.example.desafioTecnico.services.RemocaoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GETs condicionais de gêneros com o {@link GeneroService} de verdade atrás do cache: a versão
+ * usada na ETag sai do cache, então o 304 não consulta o banco.
+ */
+@SpringBootTest(classes = GeneroControllerTest.Config.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class GeneroControllerTest {
+
+    @Configuration
+    @Import({CacheConfig.class, GeneroService.class, GeneroMapper.class})
+    static class Config {
+    }
+
+    @MockitoBean private GeneroRepository repository;
+    @MockitoBean private RemocaoService remocaoService;
+    @MockitoBean private LivroService livroService;
+
+    @Autowired private GeneroService service;
+    @Autowired private CacheManager cacheManager;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        CacheConfig.CACHES.forEach(nome -> cacheManager.getCache(nome).clear());
+        mvc = MockMvcBuilders.standaloneSetup(new GeneroController(service, livroService)).build();
+    }
+
+    @Test
+    void buscar_deveResponder304SemConsultarOBanco_quandoIfNoneMatchDaVersaoEmCache() throws Exception {
+        when(repository.findVersaoById(1L)).thenReturn(Optional.of(3L));
+        when(repository.findById(1L)).thenReturn(Optional.of(genero(1L)));
+
+        mvc.perform(get("/api/v1/generos/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"3\""));
+        mvc.perform(get("/api/v1/generos/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isNotModified());
+
+        verify(repository, times(1)).findVersaoById(1L);
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void buscar_deveResponderNovaVersao_quandoGeneroAtualizadoDepoisDoCache() throws Exception {
+        when(repository.findVersaoById(1L)).thenReturn(Optional.of(3L), Optional.of(4L));
+        when(repository.findById(1L)).thenReturn(Optional.of(genero(1L)));
+        when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        mvc.perform(get("/api/v1/generos/1")).andExpect(status().isOk());
+
+        service.atualizar(1L, new GeneroCadastroDTO("Romance histórico", null));
+
+        mvc.perform(get("/api/v1/generos/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"4\""));
+    }
+
+    @Test
+    void listar_deveResponder304SemConsultarOBanco_quandoIfNoneMatchDaVersaoDaColecaoEmCache() throws Exception {
+        VersaoColecao versao = mock(VersaoColecao.class);
+        when(versao.getTotal()).thenReturn(2L);
+        when(versao.getUltimaAtualizacao()).thenReturn(LocalDateTime.of(2024, 1, 1, 12, 0));
+        when(repository.findVersaoColecao()).thenReturn(versao);
+        String etag = ETags.colecao("2@2024-01-01T12:00", null, 10, null);
+
+        mvc.perform(get("/api/v1/generos").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/v1/generos").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(repository, times(1)).findVersaoColecao();
+        verify(repository, never()).findPaginaPorId(anyLong(), any());
+    }
+
+    private static Genero genero(Long id) {
+        Genero genero = new Genero();
+        genero.setId(id);
+        genero.setNome("Romance");
+        return genero;
+    }
+}
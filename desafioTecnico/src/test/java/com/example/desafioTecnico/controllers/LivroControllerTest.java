@@ -0,0 +1,124 @@
+package com.example.desafioTecnico.controllers;
+
+import com.example.desafioTecnico.mappers.AutorMapper;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.AutorCadastroDTO;
+import com.example.desafioTecnico.models.dto.GeneroCadastroDTO;
+import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import com.example.desafioTecnico.services.AutorService;
+import com.example.desafioTecnico.services.BuscaLivroService;
+import com.example.desafioTecnico.services.EstatisticasLivroService;
+import com.example.desafioTecnico.services.ExportacaoLivroService;
+import com.example.desafioTecnico.services.GeneroService;
+import com.example.desafioTecnico.services.ImportacaoLivroService;
+import com.example.desafioTecnico.services.LivroService;
+import com.example.desafioTecnico.services.RemocaoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GETs condicionais de livros sobre o banco: a ETag de um livro combina as versões do livro, do
+ * autor e do gênero, e a da listagem as versões das três coleções, já que autor e gênero vêm
+ * aninhados no JSON.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@Import({LivroService.class, AutorService.class, GeneroService.class, RemocaoService.class,
+        LivroMapper.class, AutorMapper.class, GeneroMapper.class})
+class LivroControllerTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private LivroService service;
+    @Autowired private AutorService autorService;
+    @Autowired private GeneroService generoService;
+
+    private MockMvc mvc;
+    private Long livroId;
+    private Long autorId;
+    private Long generoId;
+
+    @BeforeEach
+    void setUp() {
+        Autor autor = new Autor();
+        autor.setNome("Machado de Assis");
+        autorId = em.persist(autor).getId();
+        Genero genero = new Genero();
+        genero.setNome("Romance");
+        generoId = em.persist(genero).getId();
+        Livro livro = new Livro();
+        livro.setTitulo("Dom Casmurro");
+        livro.setIsbn("9780306406157");
+        livro.setEditora("Garnier");
+        livro.setAutor(autor);
+        livro.setGenero(genero);
+        livroId = em.persist(livro).getId();
+        em.flush();
+
+        mvc = MockMvcBuilders.standaloneSetup(new LivroController(service, mock(BuscaLivroService.class),
+                mock(ImportacaoLivroService.class), mock(ExportacaoLivroService.class),
+                mock(EstatisticasLivroService.class))).build();
+    }
+
+    @Test
+    void buscar_deveResponder304_quandoIfNoneMatchDaVersaoAtual() throws Exception {
+        String etag = etag("/api/v1/livros/" + livroId);
+
+        mvc.perform(get("/api/v1/livros/" + livroId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void buscar_deveResponderNovaEtag_depoisDeAtualizarOLivro() throws Exception {
+        String antes = etag("/api/v1/livros/" + livroId);
+
+        service.atualizar(livroId, new LivroCadastroDTO("Dom Casmurro (2ª ed.)", "9780306406157", "Garnier", null,
+                generoId, autorId));
+
+        mvc.perform(get("/api/v1/livros/" + livroId).header(HttpHeaders.IF_NONE_MATCH, antes))
+                .andExpect(status().isOk());
+        assertNotEquals(antes, etag("/api/v1/livros/" + livroId));
+    }
+
+    @Test
+    void listar_deveMudarAEtag_quandoAutorOuGeneroRenomeado() throws Exception {
+        String inicial = etag("/api/v1/livros");
+        mvc.perform(get("/api/v1/livros").header(HttpHeaders.IF_NONE_MATCH, inicial))
+                .andExpect(status().isNotModified());
+
+        autorService.atualizar(autorId, new AutorCadastroDTO("Joaquim Maria Machado de Assis", null, null));
+        String depoisDoAutor = etag("/api/v1/livros");
+        assertNotEquals(inicial, depoisDoAutor);
+
+        generoService.atualizar(generoId, new GeneroCadastroDTO("Romance realista", null));
+        mvc.perform(get("/api/v1/livros").header(HttpHeaders.IF_NONE_MATCH, depoisDoAutor))
+                .andExpect(status().isOk());
+        assertNotEquals(depoisDoAutor, etag("/api/v1/livros"));
+    }
+
+    private String etag(String caminho) throws Exception {
+        String etag = mvc.perform(get(caminho))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+}
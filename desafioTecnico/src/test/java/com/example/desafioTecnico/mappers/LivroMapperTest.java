@@ -0,0 +1,73 @@
+package com.example.desafioTecnico.mappers;
+
+import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LivroMapperTest {
+
+    private final LivroMapper mapper = new LivroMapper(new AutorMapper(), new GeneroMapper());
+
+    @Test
+    void atualizar_deveCopiarCamposSimples_semTocarIdAutorEGenero() {
+        Autor autor = new Autor();
+        Genero genero = new Genero();
+        Livro livro = new Livro();
+        livro.setId(7L);
+        livro.setAutor(autor);
+        livro.setGenero(genero);
+
+        LivroCadastroDTO dto = new LivroCadastroDTO("Dom Casmurro", "978-85", "Globo", 1899, 99L, 98L);
+
+        mapper.atualizar(dto, livro);
+
+        assertEquals(7L, livro.getId());
+        assertSame(autor, livro.getAutor());
+        assertSame(genero, livro.getGenero());
+        assertEquals("Dom Casmurro", livro.getTitulo());
+        assertEquals("978-85", livro.getIsbn());
+        assertEquals("Globo", livro.getEditora());
+        assertEquals(1899, livro.getAnoPublicacao());
+    }
+
+    @Test
+    void toEntity_naoDeveDefinirIdNemAssociacoes() {
+        LivroCadastroDTO dto = new LivroCadastroDTO("Titulo", "ISBN", "Editora", 2001, 1L, 2L);
+
+        Livro livro = mapper.toEntity(dto);
+
+        assertNull(livro.getId());
+        assertNull(livro.getAutor());
+        assertNull(livro.getGenero());
+    }
+
+    @Test
+    void toResponse_deveMapearAssociacoesAninhadas() {
+        Autor autor = new Autor();
+        autor.setId(1L);
+        autor.setNome("Machado de Assis");
+        Genero genero = new Genero();
+        genero.setId(2L);
+        genero.setNome("Romance");
+
+        Livro livro = new Livro();
+        livro.setId(3L);
+        livro.setTitulo("Dom Casmurro");
+        livro.setAutor(autor);
+        livro.setGenero(genero);
+
+        LivroResponseDTO resp = mapper.toResponse(livro);
+
+        assertEquals(3L, resp.getId());
+        assertEquals("Dom Casmurro", resp.getTitulo());
+        assertEquals(1L, resp.getAutor().getId());
+        assertEquals("Machado de Assis", resp.getAutor().getNome());
+        assertEquals(2L, resp.getGenero().getId());
+        assertEquals("Romance", resp.getGenero().getNome());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.desafioTecnico.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "LhVC0v2Oyqrm1rIggQdpq2oE6lFCrYF8tmT5+3RIRX0=";
+
+    private final JwtService service = new JwtService(SECRET, 60_000L, 100L);
+
+    @Test
+    void verify_deveRetornarUsuarioERolesNumaUnicaVerificacao() {
+        String token = service.generateToken("alice", Set.of("LEITURA", "ESCRITA"));
+
+        VerifiedToken verified = service.verify(token);
+
+        assertEquals("alice", verified.username());
+        assertEquals(Set.of("LEITURA", "ESCRITA"), verified.roles());
+        assertNotNull(verified.expiration());
+        assertNotNull(verified.jti());
+    }
+
+    @Test
+    void generateToken_deveGerarJtiDiferentePorToken() {
+        String primeiro = service.generateToken("alice", Set.of("LEITURA"));
+        String segundo = service.generateToken("alice", Set.of("LEITURA"));
+
+        assertNotEquals(service.verify(primeiro).jti(), service.verify(segundo).jti());
+    }
+
+    @Test
+    void verify_deveUsarCache_quandoMesmoTokenChegaNovamente() {
+        String token = service.generateToken("alice", Set.of("LEITURA"));
+
+        VerifiedToken primeiro = service.verify(token);
+        VerifiedToken segundo = service.verify(token);
+
+        assertSame(primeiro, segundo);
+        assertEquals(1, service.cacheStats().missCount());
+        assertEquals(1, service.cacheStats().hitCount());
+    }
+
+    @Test
+    void verify_deveLancarENaoCachear_quandoAssinaturaInvalida() {
+        String token = service.generateToken("alice", Set.of("LEITURA"));
+        String adulterado = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> service.verify(adulterado));
+        assertEquals(0, service.cacheSize());
+    }
+
+    @Test
+    void verify_deveLancarExpirado_quandoTokenVencido() {
+        JwtService expirando = new JwtService(SECRET, -1_000L, 100L);
+        String token = expirando.generateToken("alice", Set.of("LEITURA"));
+
+        assertThrows(ExpiredJwtException.class, () -> expirando.verify(token));
+        assertEquals(0, expirando.cacheSize());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.desafioTecnico.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListaRevogacaoTest {
+
+    private final ListaRevogacao lista = new ListaRevogacao(4);
+    private final Instant daquiAUmaHora = Instant.now().plus(Duration.ofHours(1));
+
+    @Test
+    void revogado_deveReconhecerSomenteJtisAdicionados() {
+        lista.adicionar("jti-1", daquiAUmaHora);
+
+        assertTrue(lista.revogado("jti-1"));
+        assertFalse(lista.revogado("jti-2"));
+        assertFalse(lista.revogado(null));
+    }
+
+    @Test
+    void adicionar_deveIgnorar_quandoTokenJaVenceu() {
+        lista.adicionar("jti-1", Instant.now().minusSeconds(1));
+
+        assertFalse(lista.revogado("jti-1"));
+        assertEquals(0, lista.tamanho());
+    }
+
+    @Test
+    void adicionar_deveManterTodos_quandoPassaDaCapacidade() {
+        for (int i = 0; i < 50; i++) {
+            lista.adicionar("jti-" + i, daquiAUmaHora);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(lista.revogado("jti-" + i));
+        }
+        assertEquals(50, lista.tamanho());
+    }
+
+    @Test
+    void removerExpirados_deveTirarSoOsVencidos() {
+        Instant agora = Instant.now();
+        lista.adicionar("curto", agora.plusSeconds(10));
+        lista.adicionar("longo", daquiAUmaHora);
+
+        assertEquals(1, lista.removerExpirados(agora.plusSeconds(60)));
+
+        assertFalse(lista.revogado("curto"));
+        assertTrue(lista.revogado("longo"));
+    }
+
+    @Test
+    void filtroBloom_deveFicarPertoDaTaxaPlanejada() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(UUID.randomUUID().toString());
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filtro.talvezContenha(UUID.randomUUID().toString())) {
+                falsosPositivos++;
+            }
+        }
+        assertEquals(7, filtro.numHashes());
+        assertTrue(falsosPositivos < 300, "falsos positivos: " + falsosPositivos);
+    }
+}
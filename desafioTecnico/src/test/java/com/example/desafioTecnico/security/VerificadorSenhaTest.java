@@ -0,0 +1,68 @@
+package com.example.desafioTecnico.security;
+
+import com.example.desafioTecnico.exception.LoginIndisponivelException;
+import com.example.desafioTecnico.exception.LoginSobrecarregadoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerificadorSenhaTest {
+
+    private final PasswordEncoder encoder = mock(PasswordEncoder.class);
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private VerificadorSenha verificador;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        verificador.destroy();
+    }
+
+    @Test
+    void matches_deveDelegarAoEncoderNoPool() {
+        verificador = new VerificadorSenha(encoder, 1, 1, Duration.ofSeconds(2));
+        when(encoder.matches("senha", "hash")).thenReturn(true);
+
+        assertTrue(verificador.matches("senha", "hash"));
+        assertEquals(1, verificador.estatisticas().concluidas());
+    }
+
+    @Test
+    void matches_deveRejeitarNaHora_quandoFilaCheia() throws Exception {
+        verificador = new VerificadorSenha(encoder, 1, 1, Duration.ofSeconds(5));
+        CountDownLatch ocupado = new CountDownLatch(1);
+        when(encoder.matches(anyString(), anyString())).thenAnswer(inv -> {
+            ocupado.countDown();
+            return liberar.await(5, TimeUnit.SECONDS);
+        });
+
+        // Uma verificação ocupa a única thread e outra fica na fila
+        CompletableFuture.runAsync(() -> verificador.matches("a", "h"));
+        assertTrue(ocupado.await(2, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> verificador.matches("b", "h"));
+        while (verificador.estatisticas().fila() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(LoginSobrecarregadoException.class, () -> verificador.matches("c", "h"));
+        assertEquals(1, verificador.estatisticas().rejeitadas());
+    }
+
+    @Test
+    void matches_deveLancarIndisponivel_quandoVerificacaoPassaDoTimeout() {
+        verificador = new VerificadorSenha(encoder, 1, 1, Duration.ofMillis(50));
+        when(encoder.matches(anyString(), anyString()))
+                .thenAnswer(inv -> liberar.await(5, TimeUnit.SECONDS));
+
+        assertThrows(LoginIndisponivelException.class, () -> verificador.matches("a", "h"));
+        assertEquals(1, verificador.estatisticas().expiradas());
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.exception.LoginSobrecarregadoException;
+import com.example.desafioTecnico.models.dto.LoginDtos;
 import com.example.desafioTecnico.models.dto.RegisterDtos;
 import com.example.desafioTecnico.models.entities.Usuario;
 import com.example.desafioTecnico.models.enums.Role;
 import com.example.desafioTecnico.repositories.UsuarioRepository;
 import com.example.desafioTecnico.security.JwtService;
+import com.example.desafioTecnico.security.VerificadorSenha;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,7 +16,6 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -28,14 +30,15 @@ class AuthServiceTest {
     @Mock private UsuarioRepository usuarioRepository;
     @Mock private JwtService jwtService;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private VerificadorSenha verificadorSenha;
 
     @InjectMocks
     private AuthService service;
 
 
     @Test
-    @DisplayName("authenticateAndGenerateToken: deve gerar JWT quando credenciais corretas")
-    void authenticate_success() {
+    @DisplayName("login: deve gerar JWT e devolver roles com uma única consulta ao usuário")
+    void login_success() {
         String username = "alice";
         String rawPass = "secret";
         String encodedPass = "{bcrypt}hash";
@@ -45,28 +48,32 @@ class AuthServiceTest {
         u.setRoles(EnumSet.of(Role.ESCRITA, Role.LEITURA));
 
         when(usuarioRepository.findByUsername(username)).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches(rawPass, encodedPass)).thenReturn(true);
+        when(verificadorSenha.matches(rawPass, encodedPass)).thenReturn(true);
         when(jwtService.generateToken(eq(username), anySet())).thenReturn("jwt-token");
 
-        String token = service.authenticateAndGenerateToken(username, rawPass);
+        LoginDtos.LoginResponse resp = service.login(username, rawPass);
 
-        assertEquals("jwt-token", token);
+        assertEquals("jwt-token", resp.token());
+        assertEquals(Set.of("ESCRITA", "LEITURA"), resp.roles());
         ArgumentCaptor<Set<String>> rolesCap = ArgumentCaptor.forClass(Set.class);
         verify(jwtService).generateToken(eq(username), rolesCap.capture());
-        assertTrue(rolesCap.getValue().containsAll(Set.of("ESCRITA", "LEITURA")));
+        assertEquals(resp.roles(), rolesCap.getValue());
+        verify(usuarioRepository, times(1)).findByUsername(username);
+        verifyNoInteractions(passwordEncoder);
     }
 
     @Test
-    @DisplayName("authenticateAndGenerateToken: deve lançar BadCredentials quando usuário não encontrado")
-    void authenticate_userNotFound() {
+    @DisplayName("login: deve lançar BadCredentials quando usuário não encontrado")
+    void login_userNotFound() {
         when(usuarioRepository.findByUsername("bob")).thenReturn(Optional.empty());
         assertThrows(BadCredentialsException.class,
-                () -> service.authenticateAndGenerateToken("bob", "x"));
+                () -> service.login("bob", "x"));
+        verifyNoInteractions(verificadorSenha);
     }
 
     @Test
-    @DisplayName("authenticateAndGenerateToken: deve lançar BadCredentials quando senha inválida")
-    void authenticate_wrongPassword() {
+    @DisplayName("login: deve lançar BadCredentials quando senha inválida")
+    void login_wrongPassword() {
         String username = "carol";
         Usuario u = new Usuario();
         u.setUsername(username);
@@ -74,32 +81,27 @@ class AuthServiceTest {
         u.setRoles(EnumSet.of(Role.LEITURA));
 
         when(usuarioRepository.findByUsername(username)).thenReturn(Optional.of(u));
-        when(passwordEncoder.matches("wrong", "{bcrypt}hash")).thenReturn(false);
+        when(verificadorSenha.matches("wrong", "{bcrypt}hash")).thenReturn(false);
 
         assertThrows(BadCredentialsException.class,
-                () -> service.authenticateAndGenerateToken(username, "wrong"));
+                () -> service.login(username, "wrong"));
         verify(jwtService, never()).generateToken(anyString(), anySet());
     }
 
-
     @Test
-    @DisplayName("getUserRoles: deve retornar nomes das roles quando usuário existe")
-    void getUserRoles_success() {
+    @DisplayName("login: deve propagar a rejeição quando o pool de verificação está saturado")
+    void login_saturado() {
         Usuario u = new Usuario();
         u.setUsername("dave");
-        u.setRoles(EnumSet.of(Role.LEITURA, Role.ESCRITA));
+        u.setPassword("{bcrypt}hash");
+        u.setRoles(EnumSet.of(Role.LEITURA));
 
         when(usuarioRepository.findByUsername("dave")).thenReturn(Optional.of(u));
+        when(verificadorSenha.matches("p", "{bcrypt}hash"))
+                .thenThrow(new LoginSobrecarregadoException("cheio"));
 
-        Set<String> roles = service.getUserRoles("dave");
-        assertEquals(Set.of("ESCRITA", "LEITURA"), roles);
-    }
-
-    @Test
-    @DisplayName("getUserRoles: deve lançar UsernameNotFound quando usuário não existe")
-    void getUserRoles_notFound() {
-        when(usuarioRepository.findByUsername("nope")).thenReturn(Optional.empty());
-        assertThrows(UsernameNotFoundException.class, () -> service.getUserRoles("nope"));
+        assertThrows(LoginSobrecarregadoException.class, () -> service.login("dave", "p"));
+        verify(jwtService, never()).generateToken(anyString(), anySet());
     }
 
     @Nested
@@ -1,16 +1,23 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
 import com.example.desafioTecnico.exception.AutorExistenteException;
 import com.example.desafioTecnico.exception.AutorNaoEncontradoException;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.AutorMapper;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.dto.AutorCadastroDTO;
 import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
 import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
 import com.example.desafioTecnico.repositories.AutorRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,7 +29,9 @@ import static org.mockito.Mockito.*;
 class AutorServiceTest {
 
     @Mock private AutorRepository repository;
-    @Mock private ModelMapper mapper;
+    @Mock private AutorMapper mapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private RemocaoService remocaoService;
 
     @InjectMocks
     private AutorService service;
@@ -35,13 +44,13 @@ class AutorServiceTest {
         when(repository.existsByNomeIgnoreCase("Arthur C. Clarke")).thenReturn(false);
 
         Autor entidadeMapeada = new Autor();
-        when(mapper.map(dto, Autor.class)).thenReturn(entidadeMapeada);
+        when(mapper.toEntity(dto)).thenReturn(entidadeMapeada);
 
         Autor salvo = new Autor();
         when(repository.save(entidadeMapeada)).thenReturn(salvo);
 
         AutorResponseDTO esperado = mock(AutorResponseDTO.class);
-        when(mapper.map(salvo, AutorResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(salvo)).thenReturn(esperado);
 
         AutorResponseDTO resp = service.cadastrar(dto);
 
@@ -67,7 +76,7 @@ class AutorServiceTest {
         when(repository.findById(10L)).thenReturn(Optional.of(autor));
 
         AutorResponseDTO esperado = mock(AutorResponseDTO.class);
-        when(mapper.map(autor, AutorResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(autor)).thenReturn(esperado);
 
         AutorResponseDTO resp = service.buscar(10L);
 
@@ -84,22 +93,55 @@ class AutorServiceTest {
 
 
     @Test
-    void listar_deveMapearListaParaDTO() {
+    void listar_deveMapearPaginaParaDTO_semCursorQuandoNaoHaMaisItens() {
         Autor a1 = new Autor();
+        a1.setId(1L);
         Autor a2 = new Autor();
-        when(repository.findAll()).thenReturn(List.of(a1, a2));
+        a2.setId(2L);
+        when(repository.findPaginaPorId(eq(0L), any(Pageable.class))).thenReturn(List.of(a1, a2));
 
         AutorResponseDTO r1 = mock(AutorResponseDTO.class);
         AutorResponseDTO r2 = mock(AutorResponseDTO.class);
-        when(mapper.map(a1, AutorResponseDTO.class)).thenReturn(r1);
-        when(mapper.map(a2, AutorResponseDTO.class)).thenReturn(r2);
+        when(mapper.toResponse(a1)).thenReturn(r1);
+        when(mapper.toResponse(a2)).thenReturn(r2);
 
-        List<AutorResponseDTO> resp = service.listar();
+        CursorPage<AutorResponseDTO> resp = service.listar(null, null, null);
 
-        assertEquals(2, resp.size());
-        assertSame(r1, resp.get(0));
-        assertSame(r2, resp.get(1));
-        verify(repository).findAll();
+        assertEquals(2, resp.items().size());
+        assertSame(r1, resp.items().get(0));
+        assertSame(r2, resp.items().get(1));
+        assertNull(resp.next());
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void listar_deveRetornarCursorDaProximaPagina_quandoHaMaisItens() {
+        Autor a1 = new Autor();
+        a1.setId(1L);
+        a1.setNome("A");
+        Autor a2 = new Autor();
+        a2.setId(2L);
+        a2.setNome("B");
+        when(repository.findPrimeiraPaginaPorNome(any(Pageable.class))).thenReturn(List.of(a1, a2));
+
+        CursorPage<AutorResponseDTO> primeira = service.listar(null, 1, "nome");
+
+        assertEquals(1, primeira.items().size());
+        assertNotNull(primeira.next());
+
+        when(repository.findPaginaPorNome(eq("A"), eq(1L), any(Pageable.class))).thenReturn(List.of(a2));
+
+        CursorPage<AutorResponseDTO> segunda = service.listar(primeira.next(), 1, "nome");
+
+        assertEquals(1, segunda.items().size());
+        assertNull(segunda.next());
+    }
+
+    @Test
+    void listar_deveLancarParametroInvalido_quandoOrdenacaoOuCursorInvalidos() {
+        assertThrows(ParametroInvalidoException.class, () -> service.listar(null, null, "inexistente"));
+        assertThrows(ParametroInvalidoException.class, () -> service.listar("@@@", null, null));
+        assertThrows(ParametroInvalidoException.class, () -> service.listar(null, 0, null));
     }
 
     @Test
@@ -111,19 +153,20 @@ class AutorServiceTest {
 
         AutorCadastroDTO dto = mock(AutorCadastroDTO.class);
 
-        // mapper.map(dto, existente) não retorna valor
-        doAnswer(inv -> null).when(mapper).map(dto, existente);
+        // mapper.atualizar(dto, existente) não retorna valor
+        doAnswer(inv -> null).when(mapper).atualizar(dto, existente);
 
         when(repository.save(existente)).thenReturn(existente);
 
         AutorResponseDTO esperado = mock(AutorResponseDTO.class);
-        when(mapper.map(existente, AutorResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(existente)).thenReturn(esperado);
 
         AutorResponseDTO resp = service.atualizar(id, dto);
 
         assertSame(esperado, resp);
-        verify(mapper).map(dto, existente);
+        verify(mapper).atualizar(dto, existente);
         verify(repository).save(existente);
+        verify(eventPublisher).publishEvent(new AutorAlteradoEvent(id, esperado));
     }
 
     @Test
@@ -136,19 +179,33 @@ class AutorServiceTest {
     }
 
     @Test
-    void deletar_deveExcluir_quandoExiste() {
-        when(repository.existsById(3L)).thenReturn(true);
+    void deletar_deveMarcarEAgendarRemocao_quandoExiste() {
+        when(repository.marcarRemocao(eq(3L), any())).thenReturn(1);
+        RemocaoDTO agendada = mock(RemocaoDTO.class);
+        when(remocaoService.agendar(TipoRemocao.AUTOR, 3L)).thenReturn(agendada);
+
+        assertSame(agendada, service.deletar(3L));
+
+        verify(repository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deletar_deveRetomarRemocao_quandoJaMarcado() {
+        when(repository.marcarRemocao(eq(5L), any())).thenReturn(0);
+        when(repository.countEmRemocao(5L)).thenReturn(1L);
 
-        service.deletar(3L);
+        service.deletar(5L);
 
-        verify(repository).deleteById(3L);
+        verify(remocaoService).agendar(TipoRemocao.AUTOR, 5L);
     }
 
     @Test
     void deletar_deveLancarNaoEncontrado_quandoInexistente() {
-        when(repository.existsById(4L)).thenReturn(false);
+        when(repository.marcarRemocao(eq(4L), any())).thenReturn(0);
+        when(repository.countEmRemocao(4L)).thenReturn(0L);
 
         assertThrows(AutorNaoEncontradoException.class, () -> service.deletar(4L));
-        verify(repository, never()).deleteById(anyLong());
+        verifyNoInteractions(remocaoService);
     }
 }
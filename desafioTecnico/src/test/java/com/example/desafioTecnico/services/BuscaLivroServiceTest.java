@@ -0,0 +1,118 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.CursorPage;
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaLivroServiceTest {
+
+    @Mock private LivroRepository livroRepository;
+    @Mock private LivroMapper mapper;
+
+    @InjectMocks
+    private BuscaLivroService service;
+
+    private AutorResponseDTO machado;
+    private GeneroResponseDTO romance;
+
+    @BeforeEach
+    void setUp() {
+        machado = new AutorResponseDTO(1L, "Machado de Assis", null, null);
+        romance = new GeneroResponseDTO(2L, "Romance", null);
+        service.onLivroAlterado(new LivroAlteradoEvent(null, livro(10L, "Dom Casmurro", "Globo")));
+        service.onLivroAlterado(new LivroAlteradoEvent(null, livro(11L, "Memórias Póstumas de Brás Cubas", "Ática")));
+        service.onLivroAlterado(new LivroAlteradoEvent(null, livro(12L, "Romance d'A Pedra do Reino", "Globo")));
+    }
+
+    @Test
+    void tokenizar_deveRemoverAcentosEQuebrarEmTermos() {
+        assertEquals(List.of("memorias", "postumas", "de", "bras", "cubas"),
+                BuscaLivroService.tokenizar("Memórias Póstumas de Brás-Cubas"));
+        assertTrue(BuscaLivroService.tokenizar("  ").isEmpty());
+    }
+
+    @Test
+    void buscar_deveOrdenarPorRelevancia_quandoTermoAparecePorPesosDiferentes() {
+        // "romance" é título do livro 12 (peso 3) e gênero de todos (peso 1)
+        CursorPage<LivroResponseDTO> pagina = service.buscar("romance", null, null);
+
+        assertEquals(List.of(12L, 10L, 11L), ids(pagina));
+        assertNull(pagina.next());
+    }
+
+    @Test
+    void buscar_deveCasarUltimoTermoPorPrefixoEIgnorarAcentos() {
+        assertEquals(List.of(11L), ids(service.buscar("memorias pos", null, null)));
+        assertEquals(List.of(10L), ids(service.buscar("casmurro glo", null, null)));
+    }
+
+    @Test
+    void buscar_devePaginarComCursor() {
+        CursorPage<LivroResponseDTO> primeira = service.buscar("machado", null, 2);
+        assertEquals(List.of(10L, 11L), ids(primeira));
+        assertNotNull(primeira.next());
+
+        CursorPage<LivroResponseDTO> segunda = service.buscar("machado", primeira.next(), 2);
+        assertEquals(List.of(12L), ids(segunda));
+        assertNull(segunda.next());
+
+        assertThrows(ParametroInvalidoException.class, () -> service.buscar("outra", primeira.next(), 2));
+        assertThrows(ParametroInvalidoException.class, () -> service.buscar(" ", null, null));
+    }
+
+    @Test
+    void onAutorAlterado_deveReindexarLivrosDoAutor_quandoRenomeado() {
+        service.onAutorAlterado(new AutorAlteradoEvent(1L, new AutorResponseDTO(1L, "Joaquim Maria", null, null)));
+
+        assertTrue(service.buscar("machado", null, null).items().isEmpty());
+        CursorPage<LivroResponseDTO> pagina = service.buscar("joaquim", null, null);
+        assertEquals(List.of(10L, 11L, 12L), ids(pagina));
+        assertEquals("Joaquim Maria", pagina.items().get(0).getAutor().getNome());
+    }
+
+    @Test
+    void onGeneroAlterado_deveRemoverLivrosDoGenero_quandoExcluido() {
+        service.onGeneroAlterado(new GeneroAlteradoEvent(2L, null));
+
+        assertTrue(service.buscar("machado", null, null).items().isEmpty());
+    }
+
+    @Test
+    void onLivroAlterado_deveAtualizarERemoverDoIndice() {
+        LivroResponseDTO anterior = livro(10L, "Dom Casmurro", "Globo");
+        LivroResponseDTO atual = livro(10L, "Quincas Borba", "Globo");
+        service.onLivroAlterado(new LivroAlteradoEvent(anterior, atual));
+
+        assertTrue(service.buscar("casmurro", null, null).items().isEmpty());
+        assertEquals(List.of(10L), ids(service.buscar("quincas", null, null)));
+
+        service.onLivroAlterado(new LivroAlteradoEvent(atual, null));
+        assertTrue(service.buscar("quincas", null, null).items().isEmpty());
+    }
+
+    private LivroResponseDTO livro(Long id, String titulo, String editora) {
+        return new LivroResponseDTO(id, titulo, "ISBN-" + id, editora, 1900, romance, machado);
+    }
+
+    private static List<Long> ids(CursorPage<LivroResponseDTO> pagina) {
+        return pagina.items().stream().map(LivroResponseDTO::getId).toList();
+    }
+}
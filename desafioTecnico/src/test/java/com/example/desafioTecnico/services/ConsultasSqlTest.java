@@ -0,0 +1,323 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.config.CacheL2Config;
+import com.example.desafioTecnico.config.ContadorSql;
+import com.example.desafioTecnico.config.ContadorSqlConfig;
+import com.example.desafioTecnico.exception.GeneroNaoEncontradoException;
+import com.example.desafioTecnico.exception.IsbnExistenteException;
+import com.example.desafioTecnico.mappers.AutorMapper;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.CursorPage;
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.ImportacaoResultadoDTO;
+import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import com.example.desafioTecnico.models.enums.EstadoRemocao;
+import com.example.desafioTecnico.models.enums.FormatoArquivo;
+import com.example.desafioTecnico.models.enums.TipoEvento;
+import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orçamento de comandos SQL por método de serviço, medido com o {@link ContadorSql} sobre H2.
+ * Um estouro aqui quase sempre é uma associação LAZY sendo carregada item a item (N+1).
+ */
+// Em H2 o esquema vem do Hibernate (create-drop); as migrações do Flyway são específicas do MySQL
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "app.remocao.lote=2"
+})
+// Com o OutboxService as escritas pagam também o INSERT do evento
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ContadorSqlConfig.class, CacheL2Config.class, LivroService.class, AutorService.class, GeneroService.class, RemocaoService.class,
+        OutboxService.class, ImportacaoLivroService.class, LivroMapper.class, AutorMapper.class, GeneroMapper.class})
+class ConsultasSqlTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private LivroService livroService;
+    @Autowired private AutorService autorService;
+    @Autowired private GeneroService generoService;
+    @Autowired private RemocaoService remocaoService;
+    @Autowired private ImportacaoLivroService importacaoService;
+    @Autowired private LivroRepository livroRepository;
+    @Autowired private GeneroRepository generoRepository;
+
+    private final List<Long> autorIds = new ArrayList<>();
+    private final List<Long> generoIds = new ArrayList<>();
+    private Long livroId;
+
+    @BeforeEach
+    void setUp() {
+        List<Genero> generos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Autor autor = new Autor();
+            autor.setNome("Autor " + i);
+            autorIds.add(em.persist(autor).getId());
+
+            Genero genero = new Genero();
+            genero.setNome("Gênero " + i);
+            generos.add(em.persist(genero));
+            generoIds.add(genero.getId());
+        }
+        for (int i = 0; i < 9; i++) {
+            Livro livro = new Livro();
+            livro.setTitulo("Livro " + (9 - i));
+            livro.setIsbn(isbn(i));
+            livro.setEditora("Editora");
+            livro.setAnoPublicacao(i % 4 == 0 ? null : 1900 + i);
+            livro.setAutor(em.find(Autor.class, autorIds.get(i % 3)));
+            livro.setGenero(generos.get((i + 1) % 3));
+            livroId = em.persist(livro).getId();
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"id", "titulo", "anoPublicacao"})
+    void livroListar_deveExecutarNoMaximoDoisComandos(String sort) {
+        ContadorSql.Medicao<CursorPage<LivroResponseDTO>> primeira =
+                ContadorSql.medir(() -> livroService.listar(null, 4, sort));
+        assertEquals(4, primeira.resultado().items().size());
+        assertOrcamento(2, primeira.relatorio());
+
+        em.clear();
+        ContadorSql.Medicao<CursorPage<LivroResponseDTO>> segunda =
+                ContadorSql.medir(() -> livroService.listar(primeira.resultado().next(), 4, sort));
+        assertEquals(4, segunda.resultado().items().size());
+        assertOrcamento(2, segunda.relatorio());
+    }
+
+    @Test
+    void livrosPorAutorEGenero_devemExecutarUmComandoPorPagina() {
+        Long autorId = autorIds.get(0);
+        ContadorSql.Medicao<CursorPage<LivroResponseDTO>> porAutor =
+                ContadorSql.medir(() -> livroService.listarPorAutor(autorId, null, 2));
+        assertEquals(2, porAutor.resultado().items().size());
+        assertOrcamento(1, porAutor.relatorio());
+
+        ContadorSql.Medicao<Long> contagem = ContadorSql.medir(() -> livroService.contarPorAutor(autorId));
+        assertEquals(3L, contagem.resultado());
+        assertOrcamento(1, contagem.relatorio());
+
+        em.clear();
+        Long generoId = porAutor.resultado().items().get(0).getGenero().getId();
+        ContadorSql.Medicao<CursorPage<LivroResponseDTO>> porGenero =
+                ContadorSql.medir(() -> livroService.listarPorGenero(generoId, null, 10));
+        assertEquals(3, porGenero.resultado().items().size());
+        assertOrcamento(1, porGenero.relatorio());
+    }
+
+    @Test
+    void livroBuscar_deveExecutarUmComando() {
+        ContadorSql.Medicao<LivroResponseDTO> medicao = ContadorSql.medir(() -> livroService.buscar(livroId));
+
+        assertNotNull(medicao.resultado().getAutor().getNome());
+        assertNotNull(medicao.resultado().getGenero().getNome());
+        assertOrcamento(1, medicao.relatorio());
+    }
+
+    @Test
+    void autorEGeneroListar_devemExecutarUmComando() {
+        ContadorSql.Medicao<CursorPage<AutorResponseDTO>> autores =
+                ContadorSql.medir(() -> autorService.listar(null, 10, "nome"));
+        ContadorSql.Medicao<CursorPage<GeneroResponseDTO>> generos =
+                ContadorSql.medir(() -> generoService.listar(null, 10, "nome"));
+
+        assertEquals(3, autores.resultado().items().size());
+        assertEquals(3, generos.resultado().items().size());
+        assertOrcamento(1, autores.relatorio());
+        assertOrcamento(1, generos.relatorio());
+    }
+
+    @Test
+    void isbnsExistentes_deveExecutarUmComando() {
+        ContadorSql.Medicao<List<String>> medicao =
+                ContadorSql.medir(() -> livroRepository.findIsbnsExistentes(List.of(isbn(1), isbn(99))));
+
+        assertEquals(List.of(isbn(1)), medicao.resultado());
+        assertOrcamento(1, medicao.relatorio());
+    }
+
+    @Test
+    void livroCadastrarEAtualizar_devemExecutarSoAEscrita_quandoEntidadesNoCacheL2() {
+        Long autorId = autorIds.get(1);
+        Long generoId = generoIds.get(2);
+        // O primeiro cadastro lê autor e gênero num só SELECT e os deixa no cache L2
+        ContadorSql.Medicao<LivroResponseDTO> frio =
+                ContadorSql.medir(() -> livroService.cadastrar(cadastro(isbn(10), autorId, generoId)));
+        assertEquals("Autor 1", frio.resultado().getAutor().getNome());
+        assertOrcamento(3, frio.relatorio());
+
+        em.clear();
+        LivroCadastroDTO dto = cadastro(isbn(11), autorId, generoId);
+        ContadorSql.Medicao<LivroResponseDTO> cadastro = ContadorSql.medir(() -> livroService.cadastrar(dto));
+        assertEquals("Gênero 2", cadastro.resultado().getGenero().getNome());
+        assertOrcamento(2, cadastro.relatorio());
+
+        // Livro gravado só entra no cache no commit; aqui ele entra pela leitura
+        Long id = cadastro.resultado().getId();
+        em.clear();
+        em.find(Livro.class, id);
+        em.clear();
+        dto.setTitulo("Outro título");
+        ContadorSql.Medicao<LivroResponseDTO> atualizacao =
+                ContadorSql.medir(() -> livroService.atualizar(id, dto));
+        assertEquals("Outro título", atualizacao.resultado().getTitulo());
+        assertOrcamento(2, atualizacao.relatorio());
+    }
+
+    @Test
+    void livroAtualizar_deveLerTudoNumSoComando_quandoCacheL2Vazio() {
+        em.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        LivroCadastroDTO dto = cadastro(isbn(8), autorIds.get(0), generoIds.get(0));
+        dto.setTitulo("Outro título");
+
+        ContadorSql.Medicao<LivroResponseDTO> medicao =
+                ContadorSql.medir(() -> livroService.atualizar(livroId, dto));
+
+        assertEquals("Outro título", medicao.resultado().getTitulo());
+        assertEquals("Gênero 0", medicao.resultado().getGenero().getNome());
+        assertOrcamento(3, medicao.relatorio());
+    }
+
+    @Test
+    void livroBuscarPorIsbn_deveVirDoCacheL2_naSegundaLeitura() {
+        // Livro, autor e gênero na primeira; a segunda sai inteira do cache (natural id e entidades)
+        ContadorSql.Medicao<LivroResponseDTO> primeira =
+                ContadorSql.medir(() -> livroService.buscarPorIsbn(isbn(3)));
+        assertEquals(isbn(3), primeira.resultado().getIsbn());
+        assertOrcamento(3, primeira.relatorio());
+
+        em.clear();
+        ContadorSql.Medicao<LivroResponseDTO> segunda =
+                ContadorSql.medir(() -> livroService.buscarPorIsbn("978-" + isbn(3).substring(3)));
+        assertEquals(primeira.resultado().getId(), segunda.resultado().getId());
+        assertOrcamento(0, segunda.relatorio());
+    }
+
+    @Test
+    void livroCadastrar_deveLancarIsbnExistente_quandoMesmoIsbnComHifens() {
+        LivroCadastroDTO dto = cadastro("978-" + isbn(3).substring(3), autorIds.get(0), generoIds.get(0));
+
+        assertThrows(IsbnExistenteException.class, () -> livroService.cadastrar(dto));
+    }
+
+    @Test
+    void generoDeletar_deveEsconderNaHoraEApagarLivrosEmBlocos() {
+        // Gênero 1 tem os livros 0, 3 e 6
+        Long generoId = generoIds.get(1);
+        RemocaoDTO agendada = generoService.deletar(generoId);
+
+        assertThrows(GeneroNaoEncontradoException.class, () -> generoService.versao(generoId));
+        assertEquals(2, generoService.listar(null, 10, "id").items().size());
+
+        ContadorSql.Medicao<RemocaoDTO> medicao = ContadorSql.medir(() -> {
+            remocaoService.executar(agendada.id());
+            return remocaoService.buscar(agendada.id());
+        });
+        assertEquals(EstadoRemocao.CONCLUIDA, medicao.resultado().estado());
+        assertEquals(3L, medicao.resultado().livrosRemovidos());
+        assertEquals(0L, livroService.contarPorGenero(generoId));
+        assertEquals(0L, generoRepository.countEmRemocao(generoId));
+        // Contagem, dois blocos de 2 (ids + DELETE), o DELETE do gênero e o INSERT do outbox
+        assertOrcamento(7, medicao.relatorio());
+        // Marcar não gera evento: a remoção sai uma vez, no fim
+        assertEquals(1L, em.getEntityManager().createQuery("""
+                        select count(e) from EventoOutbox e where e.tipo = :tipo and e.agregadoId = :id""", Long.class)
+                .setParameter("tipo", TipoEvento.GENERO_REMOVIDO)
+                .setParameter("id", generoId)
+                .getSingleResult());
+    }
+
+    @Test
+    void importar_deveGravarOsEventosDoLoteNumInsertSo() {
+        String corpo = IntStream.range(20, 23)
+                .mapToObj(i -> "{\"titulo\":\"Importado\",\"isbn\":\"" + isbn(i) + "\",\"editora\":\"Editora\","
+                        + "\"autorId\":" + autorIds.get(0) + ",\"generoId\":" + generoIds.get(0) + "}")
+                .collect(Collectors.joining("\n"));
+
+        ContadorSql.Medicao<ImportacaoResultadoDTO> medicao = ContadorSql.medir(() -> {
+            try {
+                return importacaoService.importar(new BufferedReader(new StringReader(corpo)), FormatoArquivo.NDJSON);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        assertEquals(3, medicao.resultado().importados());
+        assertEquals(1, medicao.relatorio().porComando().entrySet().stream()
+                .filter(comando -> comando.getKey().contains("evento_outbox"))
+                .mapToInt(Map.Entry::getValue)
+                .sum());
+        // ISBNs, autores e gêneros com uma consulta cada, um INSERT por livro (PK IDENTITY) e o do outbox
+        assertOrcamento(7, medicao.relatorio());
+    }
+
+    @Test
+    void contador_deveAgruparComandosRepetidos_quandoCarregamentoItemAItem() {
+        ContadorSql.Medicao<Integer> medicao = ContadorSql.medir(() -> {
+            autorIds.forEach(id -> em.find(Autor.class, id));
+            return autorIds.size();
+        });
+
+        assertEquals(3, medicao.relatorio().total());
+        assertEquals(1, medicao.relatorio().repetidos(3).size());
+    }
+
+    private static LivroCadastroDTO cadastro(String isbn, Long autorId, Long generoId) {
+        LivroCadastroDTO dto = new LivroCadastroDTO();
+        dto.setTitulo("Novo");
+        dto.setIsbn(isbn);
+        dto.setEditora("Editora");
+        dto.setAutorId(autorId);
+        dto.setGeneroId(generoId);
+        return dto;
+    }
+
+    /** ISBN-13 válido e canônico derivado de {@code i}: completa o dígito verificador. */
+    private static String isbn(int i) {
+        String base = "9780000000" + String.format("%02d", i);
+        for (int verificador = 0; verificador < 10; verificador++) {
+            if (Isbn.normalizar(base + verificador) != null) {
+                return base + verificador;
+            }
+        }
+        throw new IllegalStateException(base);
+    }
+
+    private static void assertOrcamento(int maximo, ContadorSql.Relatorio relatorio) {
+        assertTrue(relatorio.total() <= maximo, () -> "Esperado no máximo " + maximo
+                + " comandos SQL, executou " + relatorio.total() + ": " + relatorio.porComando());
+    }
+}
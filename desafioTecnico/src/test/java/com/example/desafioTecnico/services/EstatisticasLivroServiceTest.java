@@ -0,0 +1,135 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.models.dto.AutorResponseDTO;
+import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.LivroEstatisticasDTO;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.repositories.ContagemLivros;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EstatisticasLivroServiceTest {
+
+    // Projeções do repositório como records: o accessor de "getId" é getId()
+    private record Referencia(Long getId, String getNome, Long getTotal) implements ContagemLivros.PorReferencia { }
+
+    private record Editora(String getEditora, Long getTotal) implements ContagemLivros.PorEditora { }
+
+    private record Ano(Integer getAno, Long getTotal) implements ContagemLivros.PorAno { }
+
+    @Mock private LivroRepository livroRepository;
+
+    @InjectMocks
+    private EstatisticasLivroService service;
+
+    private final AutorResponseDTO machado = new AutorResponseDTO(1L, "Machado de Assis", null, null);
+    private final AutorResponseDTO alencar = new AutorResponseDTO(3L, "José de Alencar", null, null);
+    private final GeneroResponseDTO romance = new GeneroResponseDTO(2L, "Romance", null);
+
+    @BeforeEach
+    void setUp() {
+        when(livroRepository.contarPorGenero()).thenReturn(List.of(new Referencia(2L, "Romance", 3L)));
+        when(livroRepository.contarPorAutor()).thenReturn(List.of(new Referencia(1L, "Machado de Assis", 3L)));
+        when(livroRepository.contarPorEditora()).thenReturn(List.of(new Editora("Globo", 2L), new Editora("Ática", 1L)));
+        when(livroRepository.contarPorAno()).thenReturn(List.of(new Ano(1899, 2L), new Ano(null, 1L)));
+        service.carregar();
+    }
+
+    @Test
+    void estatisticas_deveRefletirACargaInicial() {
+        LivroEstatisticasDTO estatisticas = service.estatisticas();
+
+        assertEquals(3, estatisticas.total());
+        assertEquals(List.of(new LivroEstatisticasDTO.PorReferencia(2L, "Romance", 3)), estatisticas.porGenero());
+        assertEquals(List.of(new LivroEstatisticasDTO.PorEditora("Globo", 2), new LivroEstatisticasDTO.PorEditora("Ática", 1)),
+                estatisticas.porEditora());
+        assertEquals(List.of(new LivroEstatisticasDTO.PorAno(1899, 2), new LivroEstatisticasDTO.PorAno(null, 1)),
+                estatisticas.porAno());
+    }
+
+    @Test
+    void estatisticas_naoDeveConsultarOBanco_depoisDaCarga() {
+        service.estatisticas();
+        service.onLivroAlterado(new LivroAlteradoEvent(null, livro(20L, "Ática", 1950, alencar)));
+        service.estatisticas();
+
+        verify(livroRepository, times(1)).contarPorAno();
+    }
+
+    @Test
+    void onLivroAlterado_deveMoverContagens_quandoLivroMudaDeAutorEAno() {
+        LivroResponseDTO anterior = livro(10L, "Globo", 1899, machado);
+        LivroResponseDTO atual = livro(10L, "Globo", 1900, alencar);
+
+        service.onLivroAlterado(new LivroAlteradoEvent(anterior, atual));
+
+        LivroEstatisticasDTO estatisticas = service.estatisticas();
+        assertEquals(3, estatisticas.total());
+        assertEquals(List.of(new LivroEstatisticasDTO.PorReferencia(1L, "Machado de Assis", 2),
+                        new LivroEstatisticasDTO.PorReferencia(3L, "José de Alencar", 1)),
+                estatisticas.porAutor());
+        assertTrue(estatisticas.porAno().contains(new LivroEstatisticasDTO.PorAno(1900, 1)));
+        assertTrue(estatisticas.porAno().contains(new LivroEstatisticasDTO.PorAno(1899, 1)));
+    }
+
+    @Test
+    void onLivroAlterado_deveRemoverGrupo_quandoContagemZera() {
+        service.onLivroAlterado(new LivroAlteradoEvent(livro(11L, "Ática", null, machado), null));
+
+        LivroEstatisticasDTO estatisticas = service.estatisticas();
+        assertEquals(2, estatisticas.total());
+        assertEquals(List.of(new LivroEstatisticasDTO.PorEditora("Globo", 2)), estatisticas.porEditora());
+        assertEquals(List.of(new LivroEstatisticasDTO.PorAno(1899, 2)), estatisticas.porAno());
+    }
+
+    @Test
+    void onLivrosImportados_deveSomarOLoteInteiro() {
+        service.onLivrosImportados(new LivrosImportadosEvent(List.of(
+                livro(20L, "Ática", 1950, alencar), livro(21L, "Ática", 1950, alencar))));
+
+        LivroEstatisticasDTO estatisticas = service.estatisticas();
+        assertEquals(5, estatisticas.total());
+        assertTrue(estatisticas.porEditora().contains(new LivroEstatisticasDTO.PorEditora("Ática", 3)));
+        assertTrue(estatisticas.porAno().contains(new LivroEstatisticasDTO.PorAno(1950, 2)));
+    }
+
+    @Test
+    void onAutorAlterado_deveRenomear_quandoAutorAtualizado() {
+        service.onAutorAlterado(new AutorAlteradoEvent(1L, new AutorResponseDTO(1L, "Joaquim Maria", null, null)));
+
+        assertEquals("Joaquim Maria", service.estatisticas().porAutor().get(0).nome());
+        verify(livroRepository, times(1)).contarPorAutor();
+    }
+
+    @Test
+    void onGeneroAlterado_deveRecarregarDoBanco_quandoGeneroRemovido() {
+        when(livroRepository.contarPorGenero()).thenReturn(List.of());
+        when(livroRepository.contarPorAutor()).thenReturn(List.of());
+        when(livroRepository.contarPorEditora()).thenReturn(List.of());
+        when(livroRepository.contarPorAno()).thenReturn(List.of());
+
+        service.onGeneroAlterado(new GeneroAlteradoEvent(2L, null));
+
+        assertEquals(0, service.estatisticas().total());
+        assertTrue(service.estatisticas().porGenero().isEmpty());
+    }
+
+    private LivroResponseDTO livro(Long id, String editora, Integer ano, AutorResponseDTO autor) {
+        return new LivroResponseDTO(id, "Livro " + id, "ISBN-" + id, editora, ano, romance, autor);
+    }
+}
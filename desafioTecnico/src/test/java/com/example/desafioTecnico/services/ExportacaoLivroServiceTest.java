@@ -0,0 +1,66 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.models.dto.LivroExportacaoDTO;
+import com.example.desafioTecnico.models.enums.FormatoArquivo;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacaoLivroServiceTest {
+
+    @Mock private LivroRepository livroRepository;
+
+    private ExportacaoLivroService service;
+    private final AtomicBoolean fechado = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportacaoLivroService(livroRepository, new ObjectMapper());
+        when(livroRepository.streamExportacao()).thenReturn(Stream.of(
+                new LivroExportacaoDTO(1L, "Dom Casmurro", "I-1", "Globo", 1899, 7L, "Machado de Assis", 3L, "Romance"),
+                new LivroExportacaoDTO(2L, "Romance, o \"primeiro\"", "I-2", "Ática", null, 7L, "Machado de Assis", 3L, "Romance")
+        ).onClose(() -> fechado.set(true)));
+    }
+
+    @Test
+    void exportar_deveEscreverUmObjetoPorLinha_quandoNdjson() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long total = service.exportar(saida, FormatoArquivo.NDJSON);
+
+        assertEquals(2, total);
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[0].startsWith("{\"id\":1,\"titulo\":\"Dom Casmurro\""));
+        assertTrue(linhas[1].contains("\"anoPublicacao\":null"));
+        assertEquals("", linhas[2]);
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    void exportar_deveEscaparCamposCsv() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long total = service.exportar(saida, FormatoArquivo.CSV);
+
+        assertEquals(2, total);
+        assertEquals(ExportacaoLivroService.CABECALHO_CSV + "\n"
+                        + "1,Dom Casmurro,I-1,Globo,1899,7,Machado de Assis,3,Romance\n"
+                        + "2,\"Romance, o \"\"primeiro\"\"\",I-2,Ática,,7,Machado de Assis,3,Romance\n",
+                saida.toString(StandardCharsets.UTF_8));
+        assertTrue(fechado.get());
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
 import com.example.desafioTecnico.exception.GeneroExistenteException;
 import com.example.desafioTecnico.exception.GeneroNaoEncontradoException;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.dto.GeneroCadastroDTO;
 import com.example.desafioTecnico.models.dto.GeneroResponseDTO;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
 import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
 import com.example.desafioTecnico.repositories.GeneroRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,7 +29,9 @@ import static org.mockito.Mockito.*;
 class GeneroServiceTest {
 
     @Mock private GeneroRepository repository;
-    @Mock private ModelMapper mapper;
+    @Mock private GeneroMapper mapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private RemocaoService remocaoService;
 
     @InjectMocks
     private GeneroService service;
@@ -35,13 +44,13 @@ class GeneroServiceTest {
         when(repository.existsByNomeIgnoreCase("Ficção")).thenReturn(false);
 
         Genero entidadeMapeada = new Genero();
-        when(mapper.map(dto, Genero.class)).thenReturn(entidadeMapeada);
+        when(mapper.toEntity(dto)).thenReturn(entidadeMapeada);
 
         Genero salvo = new Genero();
         when(repository.save(entidadeMapeada)).thenReturn(salvo);
 
         GeneroResponseDTO esperado = mock(GeneroResponseDTO.class);
-        when(mapper.map(salvo, GeneroResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(salvo)).thenReturn(esperado);
 
         GeneroResponseDTO resp = service.cadastrar(dto);
 
@@ -67,7 +76,7 @@ class GeneroServiceTest {
         when(repository.findById(10L)).thenReturn(Optional.of(genero));
 
         GeneroResponseDTO esperado = mock(GeneroResponseDTO.class);
-        when(mapper.map(genero, GeneroResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(genero)).thenReturn(esperado);
 
         GeneroResponseDTO resp = service.buscar(10L);
 
@@ -83,22 +92,55 @@ class GeneroServiceTest {
     }
 
     @Test
-    void listar_deveMapearListaParaDTO() {
+    void listar_deveMapearPaginaParaDTO_semCursorQuandoNaoHaMaisItens() {
         Genero g1 = new Genero();
+        g1.setId(1L);
         Genero g2 = new Genero();
-        when(repository.findAll()).thenReturn(List.of(g1, g2));
+        g2.setId(2L);
+        when(repository.findPaginaPorId(eq(0L), any(Pageable.class))).thenReturn(List.of(g1, g2));
 
         GeneroResponseDTO r1 = mock(GeneroResponseDTO.class);
         GeneroResponseDTO r2 = mock(GeneroResponseDTO.class);
-        when(mapper.map(g1, GeneroResponseDTO.class)).thenReturn(r1);
-        when(mapper.map(g2, GeneroResponseDTO.class)).thenReturn(r2);
+        when(mapper.toResponse(g1)).thenReturn(r1);
+        when(mapper.toResponse(g2)).thenReturn(r2);
 
-        List<GeneroResponseDTO> resp = service.listar();
+        CursorPage<GeneroResponseDTO> resp = service.listar(null, null, null);
 
-        assertEquals(2, resp.size());
-        assertSame(r1, resp.get(0));
-        assertSame(r2, resp.get(1));
-        verify(repository).findAll();
+        assertEquals(2, resp.items().size());
+        assertSame(r1, resp.items().get(0));
+        assertSame(r2, resp.items().get(1));
+        assertNull(resp.next());
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void listar_deveRetornarCursorDaProximaPagina_quandoHaMaisItens() {
+        Genero g1 = new Genero();
+        g1.setId(1L);
+        g1.setNome("A");
+        Genero g2 = new Genero();
+        g2.setId(2L);
+        g2.setNome("B");
+        when(repository.findPrimeiraPaginaPorNome(any(Pageable.class))).thenReturn(List.of(g1, g2));
+
+        CursorPage<GeneroResponseDTO> primeira = service.listar(null, 1, "nome");
+
+        assertEquals(1, primeira.items().size());
+        assertNotNull(primeira.next());
+
+        when(repository.findPaginaPorNome(eq("A"), eq(1L), any(Pageable.class))).thenReturn(List.of(g2));
+
+        CursorPage<GeneroResponseDTO> segunda = service.listar(primeira.next(), 1, "nome");
+
+        assertEquals(1, segunda.items().size());
+        assertNull(segunda.next());
+    }
+
+    @Test
+    void listar_deveLancarParametroInvalido_quandoOrdenacaoOuCursorInvalidos() {
+        assertThrows(ParametroInvalidoException.class, () -> service.listar(null, null, "inexistente"));
+        assertThrows(ParametroInvalidoException.class, () -> service.listar("@@@", null, null));
+        assertThrows(ParametroInvalidoException.class, () -> service.listar(null, 0, null));
     }
 
 
@@ -111,18 +153,19 @@ class GeneroServiceTest {
 
         GeneroCadastroDTO dto = mock(GeneroCadastroDTO.class);
 
-        doAnswer(inv -> null).when(mapper).map(dto, existente);
+        doAnswer(inv -> null).when(mapper).atualizar(dto, existente);
 
         when(repository.save(existente)).thenReturn(existente);
 
         GeneroResponseDTO esperado = mock(GeneroResponseDTO.class);
-        when(mapper.map(existente, GeneroResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(existente)).thenReturn(esperado);
 
         GeneroResponseDTO resp = service.atualizar(id, dto);
 
         assertSame(esperado, resp);
-        verify(mapper).map(dto, existente);
+        verify(mapper).atualizar(dto, existente);
         verify(repository).save(existente);
+        verify(eventPublisher).publishEvent(new GeneroAlteradoEvent(id, esperado));
     }
 
     @Test
@@ -136,19 +179,33 @@ class GeneroServiceTest {
 
 
     @Test
-    void deletar_deveExcluir_quandoExiste() {
-        when(repository.existsById(3L)).thenReturn(true);
+    void deletar_deveMarcarEAgendarRemocao_quandoExiste() {
+        when(repository.marcarRemocao(eq(3L), any())).thenReturn(1);
+        RemocaoDTO agendada = mock(RemocaoDTO.class);
+        when(remocaoService.agendar(TipoRemocao.GENERO, 3L)).thenReturn(agendada);
+
+        assertSame(agendada, service.deletar(3L));
+
+        verify(repository, never()).deleteById(anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deletar_deveRetomarRemocao_quandoJaMarcado() {
+        when(repository.marcarRemocao(eq(5L), any())).thenReturn(0);
+        when(repository.countEmRemocao(5L)).thenReturn(1L);
 
-        service.deletar(3L);
+        service.deletar(5L);
 
-        verify(repository).deleteById(3L);
+        verify(remocaoService).agendar(TipoRemocao.GENERO, 5L);
     }
 
     @Test
     void deletar_deveLancarNaoEncontrado_quandoInexistente() {
-        when(repository.existsById(4L)).thenReturn(false);
+        when(repository.marcarRemocao(eq(4L), any())).thenReturn(0);
+        when(repository.countEmRemocao(4L)).thenReturn(0L);
 
         assertThrows(GeneroNaoEncontradoException.class, () -> service.deletar(4L));
-        verify(repository, never()).deleteById(anyLong());
+        verifyNoInteractions(remocaoService);
     }
 }
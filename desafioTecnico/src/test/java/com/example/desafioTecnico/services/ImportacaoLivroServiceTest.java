@@ -0,0 +1,196 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.AutorMapper;
+import com.example.desafioTecnico.mappers.GeneroMapper;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.ImportacaoErroDTO;
+import com.example.desafioTecnico.models.dto.ImportacaoResultadoDTO;
+import com.example.desafioTecnico.models.entities.Autor;
+import com.example.desafioTecnico.models.entities.Genero;
+import com.example.desafioTecnico.models.entities.Livro;
+import com.example.desafioTecnico.models.enums.FormatoArquivo;
+import com.example.desafioTecnico.repositories.AutorRepository;
+import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacaoLivroServiceTest {
+
+    @Mock private LivroRepository livroRepository;
+    @Mock private AutorRepository autorRepository;
+    @Mock private GeneroRepository generoRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private ImportacaoLivroService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ImportacaoLivroService(livroRepository, autorRepository, generoRepository,
+                new LivroMapper(new AutorMapper(), new GeneroMapper()), eventPublisher,
+                transactionManager, new ObjectMapper(), 2);
+    }
+
+    @Test
+    void importar_deveGravarEmLotes_quandoNdjsonValido() throws Exception {
+        existem(List.of());
+        String corpo = """
+                {"titulo":"A","isbn":"978-0-306-40615-7","editora":"E","autorId":1,"generoId":2}
+                {"titulo":"B","isbn":"9780134685991","editora":"E","autorId":1,"generoId":2}
+
+                {"titulo":"C","isbn":"85-359-0277-5","editora":"E","anoPublicacao":1950,"autorId":1,"generoId":2}
+                """;
+
+        ImportacaoResultadoDTO resultado = service.importar(leitor(corpo), FormatoArquivo.NDJSON);
+
+        assertEquals(3, resultado.total());
+        assertEquals(3, resultado.importados());
+        assertEquals(0, resultado.rejeitados());
+        // Lote de 2: uma consulta de ISBNs/autores/gêneros e um saveAll por lote
+        verify(livroRepository, times(2)).findIsbnsExistentes(anyCollection());
+        verify(autorRepository, times(2)).findAllById(any());
+        verify(livroRepository, times(2)).saveAll(any());
+        // Um evento por lote, que o outbox grava com um INSERT só
+        ArgumentCaptor<LivrosImportadosEvent> eventos = ArgumentCaptor.forClass(LivrosImportadosEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventos.capture());
+        assertEquals(List.of(2, 1), eventos.getAllValues().stream().map(e -> e.livros().size()).toList());
+        verify(eventPublisher, never()).publishEvent(any(LivroAlteradoEvent.class));
+    }
+
+    @Test
+    void importar_deveRejeitarLinhasInvalidasSemInterromper() throws Exception {
+        existem(List.of("9780306406157"));
+        String corpo = """
+                {"titulo":"A","isbn":"0-306-40615-2","editora":"E","autorId":1,"generoId":2}
+                {isto não é json}
+                {"isbn":"9780134685991","editora":"E","autorId":1,"generoId":2}
+                {"titulo":"D","isbn":"9788535914849","editora":"E","autorId":9,"generoId":2}
+                {"titulo":"E","isbn":"0-8044-2957-X","editora":"E","autorId":1,"generoId":2}
+                {"titulo":"F","isbn":"978-0-8044-2957-3","editora":"E","autorId":1,"generoId":2}
+                {"titulo":"G","isbn":"978-0-306-40615-8","editora":"E","autorId":1,"generoId":2}
+                """;
+
+        ImportacaoResultadoDTO resultado = service.importar(leitor(corpo), FormatoArquivo.NDJSON);
+
+        assertEquals(7, resultado.total());
+        assertEquals(1, resultado.importados());
+        assertEquals(6, resultado.rejeitados());
+        assertEquals(List.of(2L, 3L, 1L, 4L, 6L, 7L), resultado.erros().stream().map(ImportacaoErroDTO::linha).toList());
+        assertEquals("O título é obrigatório", resultado.erros().get(1).mensagem());
+        // ISBN-10 de um livro já cadastrado como ISBN-13
+        assertEquals("Já existe um livro com este ISBN: 9780306406157", resultado.erros().get(2).mensagem());
+        assertEquals("Autor não encontrado com ID: 9", resultado.erros().get(3).mensagem());
+        // Mesmo livro repetido no arquivo, uma vez como ISBN-10 e outra como ISBN-13
+        assertEquals("Já existe um livro com este ISBN: 9780804429573", resultado.erros().get(4).mensagem());
+        assertEquals("ISBN inválido: 978-0-306-40615-8", resultado.erros().get(5).mensagem());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void importar_deveLerCsvComCabecalhoEAspas() throws Exception {
+        existem(List.of());
+        String corpo = """
+                isbn,titulo,editora,autorId,generoId,anoPublicacao
+                0-306-40615-2,"Romance, o ""primeiro""",Globo,1,2,1899
+                9780134685991,Sem ano,Globo,1,2,
+                """;
+
+        ImportacaoResultadoDTO resultado = service.importar(leitor(corpo), FormatoArquivo.CSV);
+
+        assertEquals(2, resultado.importados());
+        ArgumentCaptor<List<Livro>> salvos = ArgumentCaptor.forClass(List.class);
+        verify(livroRepository).saveAll(salvos.capture());
+        Livro primeiro = salvos.getValue().get(0);
+        assertEquals("Romance, o \"primeiro\"", primeiro.getTitulo());
+        assertEquals("9780306406157", primeiro.getIsbn());
+        assertEquals(1899, primeiro.getAnoPublicacao());
+        assertNull(salvos.getValue().get(1).getAnoPublicacao());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void importar_deveLerCsvComQuebraDeLinhaEntreAspas() throws Exception {
+        existem(List.of());
+        String corpo = """
+                isbn,titulo,editora,autorId,generoId
+                0-306-40615-2,"Memórias
+                póstumas",Globo,1,2
+                9780134685991,Sem quebra,Globo,1,2
+                978-0-306-40615-8,"Outro
+                título",Globo,1,2
+                9788535914849,"Aspas ""abertas""
+                e fechadas",Globo,1,2
+                """;
+
+        ImportacaoResultadoDTO resultado = service.importar(leitor(corpo), FormatoArquivo.CSV);
+
+        assertEquals(4, resultado.total());
+        assertEquals(3, resultado.importados());
+        // O erro aponta a linha em que o registro começa, não a do meio do campo
+        assertEquals(List.of(5L), resultado.erros().stream().map(ImportacaoErroDTO::linha).toList());
+        assertEquals("ISBN inválido: 978-0-306-40615-8", resultado.erros().get(0).mensagem());
+        ArgumentCaptor<List<Livro>> salvos = ArgumentCaptor.forClass(List.class);
+        verify(livroRepository, times(2)).saveAll(salvos.capture());
+        List<Livro> gravados = salvos.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals("Memórias\npóstumas", gravados.get(0).getTitulo());
+        assertEquals("Sem quebra", gravados.get(1).getTitulo());
+        assertEquals("Aspas \"abertas\"\ne fechadas", gravados.get(2).getTitulo());
+    }
+
+    @Test
+    void importar_deveRejeitarORegistro_quandoAspasNaoFecham() throws Exception {
+        existem(List.of());
+        String corpo = "isbn,titulo,editora,autorId,generoId\n"
+                + "9780134685991,Certo,Globo,1,2\n"
+                + "0-306-40615-2,\"Sem fechar,Globo,1,2\n"
+                + "9788535914849,Engolido,Globo,1,2\n";
+
+        ImportacaoResultadoDTO resultado = service.importar(leitor(corpo), FormatoArquivo.CSV);
+
+        assertEquals(1, resultado.importados());
+        assertEquals(3L, resultado.erros().get(0).linha());
+        assertEquals("Registro CSV com aspas não fechadas", resultado.erros().get(0).mensagem());
+    }
+
+    @Test
+    void importar_deveLancarParametroInvalido_quandoCabecalhoCsvIncompleto() {
+        assertThrows(ParametroInvalidoException.class, () ->
+                service.importar(leitor("titulo,isbn\nA,9780306406157\n"), FormatoArquivo.CSV));
+        verifyNoInteractions(livroRepository);
+    }
+
+    private void existem(List<String> isbns) {
+        Autor autor = new Autor();
+        autor.setId(1L);
+        Genero genero = new Genero();
+        genero.setId(2L);
+        when(livroRepository.findIsbnsExistentes(anyCollection())).thenReturn(isbns);
+        when(autorRepository.findAllById(any())).thenReturn(List.of(autor));
+        when(generoRepository.findAllById(any())).thenReturn(List.of(genero));
+    }
+
+    private static BufferedReader leitor(String corpo) {
+        return new BufferedReader(new StringReader(corpo));
+    }
+}
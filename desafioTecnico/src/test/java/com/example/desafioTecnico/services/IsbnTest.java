@@ -0,0 +1,52 @@
+package com.example.desafioTecnico.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnTest {
+
+    @Test
+    void normalizar_deveIgnorarHifensEEspacos() {
+        assertEquals("9780306406157", Isbn.normalizar("978-0-306-40615-7"));
+        assertEquals("9780306406157", Isbn.normalizar("978 0 306 40615 7"));
+        assertEquals("9780306406157", Isbn.normalizar("9780306406157"));
+    }
+
+    @Test
+    void normalizar_deveConverterIsbn10ParaIsbn13() {
+        assertEquals("9780306406157", Isbn.normalizar("0-306-40615-2"));
+        assertEquals("9788535902778", Isbn.normalizar("85-359-0277-5"));
+    }
+
+    @Test
+    void normalizar_deveAceitarXNoVerificadorDoIsbn10() {
+        assertEquals("9780804429573", Isbn.normalizar("0-8044-2957-X"));
+        assertEquals("9780804429573", Isbn.normalizar("080442957x"));
+    }
+
+    @Test
+    void normalizar_deveAceitarPrefixo979() {
+        assertEquals("9791090636071", Isbn.normalizar("979-10-90636-07-1"));
+    }
+
+    @Test
+    void normalizar_deveRetornarNull_quandoDigitoVerificadorErrado() {
+        assertNull(Isbn.normalizar("978-0-306-40615-8"));
+        assertNull(Isbn.normalizar("0-306-40615-3"));
+    }
+
+    @Test
+    void normalizar_deveRetornarNull_quandoFormatoInvalido() {
+        assertNull(Isbn.normalizar(null));
+        assertNull(Isbn.normalizar(""));
+        assertNull(Isbn.normalizar("ISBN-1"));
+        assertNull(Isbn.normalizar("97803064061570"));
+        assertNull(Isbn.normalizar("030640615"));
+        // X só no último dígito do ISBN-10
+        assertNull(Isbn.normalizar("08044X2957"));
+        assertNull(Isbn.normalizar("123456789012X"));
+        // ISBN-13 fora dos prefixos 978/979, mesmo com verificador certo
+        assertNull(Isbn.normalizar("1234567890128"));
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.desafioTecnico.services;
 
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
 import com.example.desafioTecnico.exception.AutorNaoEncontradoException;
 import com.example.desafioTecnico.exception.GeneroNaoEncontradoException;
 import com.example.desafioTecnico.exception.IsbnExistenteException;
 import com.example.desafioTecnico.exception.LivroNaoEncontradoException;
+import com.example.desafioTecnico.exception.ParametroInvalidoException;
+import com.example.desafioTecnico.mappers.LivroMapper;
+import com.example.desafioTecnico.models.dto.CursorPage;
 import com.example.desafioTecnico.models.dto.LivroCadastroDTO;
 import com.example.desafioTecnico.models.dto.LivroResponseDTO;
 import com.example.desafioTecnico.models.entities.Autor;
@@ -11,14 +15,18 @@ import com.example.desafioTecnico.models.entities.Genero;
 import com.example.desafioTecnico.models.entities.Livro;
 import com.example.desafioTecnico.repositories.AutorRepository;
 import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroReferenciasRepository;
 import com.example.desafioTecnico.repositories.LivroRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,7 +39,8 @@ class LivroServiceTest {
     @Mock private LivroRepository livroRepository;
     @Mock private AutorRepository autorRepository;
     @Mock private GeneroRepository generoRepository;
-    @Mock private ModelMapper mapper;
+    @Mock private LivroMapper mapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private LivroService service;
@@ -59,17 +68,11 @@ class LivroServiceTest {
 
     @Test
     void cadastrar_deveSalvarELancarResponse_quandoDadosValidos() {
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(dto.getIsbn()).thenReturn("ISBN-123");
-        when(dto.getAutorId()).thenReturn(1L);
-        when(dto.getGeneroId()).thenReturn(2L);
-
-        when(livroRepository.existsByIsbnIgnoreCase("ISBN-123")).thenReturn(false);
-        when(autorRepository.findById(1L)).thenReturn(Optional.of(autor));
-        when(generoRepository.findById(2L)).thenReturn(Optional.of(genero));
+        LivroCadastroDTO dto = dto("978-0-306-40615-7", 1L, 2L);
+        referencias();
 
         Livro livroParaSalvar = new Livro();
-        when(mapper.map(dto, Livro.class)).thenReturn(livroParaSalvar);
+        when(mapper.toEntity(dto)).thenReturn(livroParaSalvar);
 
         Livro livroSalvo = new Livro();
         try {
@@ -80,43 +83,72 @@ class LivroServiceTest {
         when(livroRepository.save(livroParaSalvar)).thenReturn(livroSalvo);
 
         LivroResponseDTO esperado = mock(LivroResponseDTO.class);
-        when(mapper.map(livroSalvo, LivroResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(livroSalvo)).thenReturn(esperado);
 
         LivroResponseDTO resp = service.cadastrar(dto);
 
         assertSame(esperado, resp);
         assertSame(autor, livroParaSalvar.getAutor());
         assertSame(genero, livroParaSalvar.getGenero());
-        verify(livroRepository).existsByIsbnIgnoreCase("ISBN-123");
+        assertEquals("9780306406157", livroParaSalvar.getIsbn());
         verify(livroRepository).save(livroParaSalvar);
+        // Caminho feliz: nenhuma verificação prévia de ISBN
+        verify(livroRepository, never()).findIsbnsExistentes(any());
     }
 
     @Test
-    void cadastrar_deveLancarIsbnExistente_quandoIsbnJaExiste() {
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(dto.getIsbn()).thenReturn("DUP");
-        when(livroRepository.existsByIsbnIgnoreCase("DUP")).thenReturn(true);
+    void cadastrar_deveLancarIsbnExistente_quandoIndiceUnicoRejeita() {
+        LivroCadastroDTO dto = dto("0-306-40615-2", 1L, 2L);
+        referencias();
+        when(mapper.toEntity(dto)).thenReturn(new Livro());
+        when(livroRepository.save(any())).thenThrow(chaveDuplicada());
+
+        IsbnExistenteException ex = assertThrows(IsbnExistenteException.class, () -> service.cadastrar(dto));
+        assertEquals("Já existe um livro com este ISBN: 9780306406157", ex.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
 
-        assertThrows(IsbnExistenteException.class, () -> service.cadastrar(dto));
-        verify(livroRepository, never()).save(any());
+    @Test
+    void cadastrar_deveRepassarViolacao_quandoNaoForChaveDuplicada() {
+        LivroCadastroDTO dto = dto("9780134685991", 1L, 2L);
+        referencias();
+        when(mapper.toEntity(dto)).thenReturn(new Livro());
+        DataIntegrityViolationException fk = new DataIntegrityViolationException("fk",
+                new SQLException("Cannot add or update a child row", "23000", 1452));
+        when(livroRepository.save(any())).thenThrow(fk);
+
+        assertSame(fk, assertThrows(DataIntegrityViolationException.class, () -> service.cadastrar(dto)));
     }
 
+    @Test
+    void cadastrar_deveLancarParametroInvalido_quandoIsbnComDigitoVerificadorErrado() {
+        LivroCadastroDTO dto = dto("978-0-306-40615-8", 1L, 2L);
+
+        ParametroInvalidoException ex = assertThrows(ParametroInvalidoException.class, () -> service.cadastrar(dto));
+        assertEquals("ISBN inválido: 978-0-306-40615-8", ex.getMessage());
+        verifyNoInteractions(autorRepository, generoRepository, livroRepository);
+    }
 
     @Test
     void cadastrar_deveLancarGeneroNaoEncontrado_quandoGeneroInexistente() {
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(dto.getIsbn()).thenReturn("ISBN-1");
-        when(dto.getAutorId()).thenReturn(1L);
-        when(dto.getGeneroId()).thenReturn(999L);
-
-        when(livroRepository.existsByIsbnIgnoreCase("ISBN-1")).thenReturn(false);
-        when(autorRepository.findById(1L)).thenReturn(Optional.of(autor));
-        when(generoRepository.findById(999L)).thenReturn(Optional.empty());
+        LivroCadastroDTO dto = dto("9780134685991", 1L, 999L);
+        when(livroRepository.findReferencias(1L, 999L)).thenReturn(Optional.empty());
+        when(autorRepository.existsById(1L)).thenReturn(true);
 
         assertThrows(GeneroNaoEncontradoException.class, () -> service.cadastrar(dto));
         verify(livroRepository, never()).save(any());
     }
 
+    @Test
+    void cadastrar_deveLancarAutorNaoEncontrado_quandoAutorInexistente() {
+        LivroCadastroDTO dto = dto("9780134685991", 999L, 2L);
+        when(livroRepository.findReferencias(999L, 2L)).thenReturn(Optional.empty());
+        when(autorRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(AutorNaoEncontradoException.class, () -> service.cadastrar(dto));
+        verify(livroRepository, never()).save(any());
+    }
+
 
     @Test
     void buscar_deveRetornarDTO_quandoEncontrado() {
@@ -127,10 +159,10 @@ class LivroServiceTest {
             idField.set(livro, 30L);
         } catch (Exception ignored) {}
 
-        when(livroRepository.findById(30L)).thenReturn(Optional.of(livro));
+        when(livroRepository.findDetalhadoById(30L)).thenReturn(Optional.of(livro));
 
         LivroResponseDTO esperado = mock(LivroResponseDTO.class);
-        when(mapper.map(livro, LivroResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(livro)).thenReturn(esperado);
 
         LivroResponseDTO resp = service.buscar(30L);
 
@@ -139,29 +171,126 @@ class LivroServiceTest {
 
     @Test
     void buscar_deveLancarNaoEncontrado_quandoInexistente() {
-        when(livroRepository.findById(77L)).thenReturn(Optional.empty());
+        when(livroRepository.findDetalhadoById(77L)).thenReturn(Optional.empty());
         assertThrows(LivroNaoEncontradoException.class, () -> service.buscar(77L));
     }
 
 
     @Test
-    void listar_deveMapearTodosLivrosParaDTO() {
+    void buscarPorIsbn_deveBuscarPelaFormaCanonica_quandoInformadoIsbn10() {
+        Livro livro = new Livro();
+        when(livroRepository.findPorIsbn("9780306406157")).thenReturn(Optional.of(livro));
+        LivroResponseDTO esperado = mock(LivroResponseDTO.class);
+        when(mapper.toResponse(livro)).thenReturn(esperado);
+
+        assertSame(esperado, service.buscarPorIsbn("0-306-40615-2"));
+    }
+
+    @Test
+    void buscarPorIsbn_deveLancarNaoEncontrado_quandoInexistente() {
+        when(livroRepository.findPorIsbn("9780134685991")).thenReturn(Optional.empty());
+
+        assertThrows(LivroNaoEncontradoException.class, () -> service.buscarPorIsbn("978-0-13-468599-1"));
+    }
+
+    @Test
+    void buscarPorIsbn_deveLancarParametroInvalido_quandoIsbnInvalido() {
+        assertThrows(ParametroInvalidoException.class, () -> service.buscarPorIsbn("ISBN-1"));
+        verifyNoInteractions(livroRepository);
+    }
+
+
+    @Test
+    void listar_deveMapearPaginaParaDTO_semCursorQuandoNaoHaMaisItens() {
         Livro l1 = new Livro();
+        l1.setId(1L);
         Livro l2 = new Livro();
-
-        when(livroRepository.findAll()).thenReturn(List.of(l1, l2));
+        l2.setId(2L);
+        when(livroRepository.findPaginaPorId(eq(0L), any(Pageable.class))).thenReturn(List.of(l1, l2));
 
         LivroResponseDTO r1 = mock(LivroResponseDTO.class);
         LivroResponseDTO r2 = mock(LivroResponseDTO.class);
-        when(mapper.map(l1, LivroResponseDTO.class)).thenReturn(r1);
-        when(mapper.map(l2, LivroResponseDTO.class)).thenReturn(r2);
+        when(mapper.toResponse(l1)).thenReturn(r1);
+        when(mapper.toResponse(l2)).thenReturn(r2);
+
+        CursorPage<LivroResponseDTO> resp = service.listar(null, null, null);
+
+        assertEquals(2, resp.items().size());
+        assertSame(r1, resp.items().get(0));
+        assertSame(r2, resp.items().get(1));
+        assertNull(resp.next());
+        verify(livroRepository, never()).findAll();
+    }
 
-        List<LivroResponseDTO> resp = service.listar();
+    @Test
+    void listar_deveRetornarCursorDaProximaPagina_quandoHaMaisItens() {
+        Livro l1 = new Livro();
+        l1.setId(1L);
+        l1.setTitulo("A");
+        Livro l2 = new Livro();
+        l2.setId(2L);
+        l2.setTitulo("B");
+        when(livroRepository.findPrimeiraPaginaPorTitulo(any(Pageable.class))).thenReturn(List.of(l1, l2));
+
+        CursorPage<LivroResponseDTO> primeira = service.listar(null, 1, "titulo");
+
+        assertEquals(1, primeira.items().size());
+        assertNotNull(primeira.next());
+
+        when(livroRepository.findPaginaPorTitulo(eq("A"), eq(1L), any(Pageable.class))).thenReturn(List.of(l2));
 
-        assertEquals(2, resp.size());
-        assertSame(r1, resp.get(0));
-        assertSame(r2, resp.get(1));
-        verify(livroRepository).findAll();
+        CursorPage<LivroResponseDTO> segunda = service.listar(primeira.next(), 1, "titulo");
+
+        assertEquals(1, segunda.items().size());
+        assertNull(segunda.next());
+    }
+
+    @Test
+    void listar_deveLancarParametroInvalido_quandoOrdenacaoOuCursorInvalidos() {
+        assertThrows(ParametroInvalidoException.class, () -> service.listar(null, null, "inexistente"));
+        assertThrows(ParametroInvalidoException.class, () -> service.listar("@@@", null, null));
+        assertThrows(ParametroInvalidoException.class, () -> service.listar(null, 0, null));
+    }
+
+    @Test
+    void listarPorAutor_devePaginarPorIdSemConsultarAutor_quandoHaLivros() {
+        Livro l1 = new Livro();
+        l1.setId(5L);
+        Livro l2 = new Livro();
+        l2.setId(9L);
+        when(livroRepository.findPaginaPorAutor(eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of(l1, l2));
+
+        CursorPage<LivroResponseDTO> primeira = service.listarPorAutor(1L, null, 1);
+
+        assertEquals(1, primeira.items().size());
+        assertNotNull(primeira.next());
+        verify(autorRepository, never()).existsById(any());
+
+        when(livroRepository.findPaginaPorAutor(eq(1L), eq(5L), any(Pageable.class))).thenReturn(List.of(l2));
+
+        CursorPage<LivroResponseDTO> segunda = service.listarPorAutor(1L, primeira.next(), 1);
+
+        assertEquals(1, segunda.items().size());
+        assertNull(segunda.next());
+    }
+
+    @Test
+    void listarPorAutor_deveLancarNaoEncontrado_quandoAutorInexistente() {
+        when(livroRepository.findPaginaPorAutor(eq(99L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+        when(autorRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(AutorNaoEncontradoException.class, () -> service.listarPorAutor(99L, null, null));
+    }
+
+    @Test
+    void listarPorGenero_deveRetornarPaginaVazia_quandoGeneroSemLivros() {
+        when(livroRepository.findPaginaPorGenero(eq(2L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+        when(generoRepository.existsById(2L)).thenReturn(true);
+
+        CursorPage<LivroResponseDTO> pagina = service.listarPorGenero(2L, null, null);
+
+        assertTrue(pagina.items().isEmpty());
+        assertNull(pagina.next());
     }
 
 
@@ -172,86 +301,123 @@ class LivroServiceTest {
         Livro existente = new Livro();
         existente.setAutor(new Autor());
         existente.setGenero(new Genero());
-        when(livroRepository.findById(id)).thenReturn(Optional.of(existente));
-
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(dto.getIsbn()).thenReturn("NOVO-ISBN");
-        when(dto.getAutorId()).thenReturn(1L);
-        when(dto.getGeneroId()).thenReturn(2L);
+        paraAtualizar(id, existente);
 
-        when(livroRepository.existsByIsbnIgnoreCaseAndIdNot("NOVO-ISBN", id)).thenReturn(false);
-        when(autorRepository.findById(1L)).thenReturn(Optional.of(autor));
-        when(generoRepository.findById(2L)).thenReturn(Optional.of(genero));
+        LivroCadastroDTO dto = dto("0-8044-2957-X", 1L, 2L);
 
         doAnswer(inv -> {
             return null;
-        }).when(mapper).map(dto, existente);
+        }).when(mapper).atualizar(dto, existente);
 
-        when(livroRepository.save(existente)).thenReturn(existente);
+        when(livroRepository.saveAndFlush(existente)).thenReturn(existente);
 
         LivroResponseDTO esperado = mock(LivroResponseDTO.class);
-        when(mapper.map(existente, LivroResponseDTO.class)).thenReturn(esperado);
+        when(mapper.toResponse(existente)).thenReturn(esperado);
 
         LivroResponseDTO resp = service.atualizar(id, dto);
 
         assertSame(esperado, resp);
         assertSame(autor, existente.getAutor());
         assertSame(genero, existente.getGenero());
+        assertEquals("9780804429573", existente.getIsbn());
+        verify(eventPublisher).publishEvent(new LivroAlteradoEvent(esperado, esperado));
     }
 
     @Test
     void atualizar_deveLancarNaoEncontrado_quandoLivroInexistente() {
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(livroRepository.findById(999L)).thenReturn(Optional.empty());
+        LivroCadastroDTO dto = dto("9780134685991", 1L, 2L);
+        when(livroRepository.findParaAtualizar(999L, 1L, 2L)).thenReturn(Optional.empty());
+        when(livroRepository.existsById(999L)).thenReturn(false);
         assertThrows(LivroNaoEncontradoException.class, () -> service.atualizar(999L, dto));
+        verifyNoInteractions(autorRepository, generoRepository);
     }
 
     @Test
     void atualizar_deveLancarIsbnExistente_quandoOutroLivroJaTemMesmoIsbn() {
         Long id = 10L;
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(dto.getIsbn()).thenReturn("DUP");
+        LivroCadastroDTO dto = dto("0-306-40615-2", 1L, 2L);
+        paraAtualizar(id, new Livro());
+        when(livroRepository.saveAndFlush(any())).thenThrow(chaveDuplicada());
 
-        when(livroRepository.findById(id)).thenReturn(Optional.of(new Livro()));
-        when(livroRepository.existsByIsbnIgnoreCaseAndIdNot("DUP", id)).thenReturn(true);
-
-        assertThrows(IsbnExistenteException.class, () -> service.atualizar(id, dto));
-        verify(livroRepository, never()).save(any());
+        IsbnExistenteException ex = assertThrows(IsbnExistenteException.class, () -> service.atualizar(id, dto));
+        assertEquals("Já existe outro livro com este ISBN: 9780306406157", ex.getMessage());
+        verifyNoInteractions(eventPublisher);
     }
 
 
     @Test
     void atualizar_deveLancarGeneroNaoEncontrado_quandoGeneroInexistente() {
         Long id = 10L;
-        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
-        when(dto.getIsbn()).thenReturn("OK");
-        when(dto.getAutorId()).thenReturn(1L);
-        when(dto.getGeneroId()).thenReturn(999L);
-
-        when(livroRepository.findById(id)).thenReturn(Optional.of(new Livro()));
-        when(livroRepository.existsByIsbnIgnoreCaseAndIdNot("OK", id)).thenReturn(false);
-        when(autorRepository.findById(1L)).thenReturn(Optional.of(autor));
-        when(generoRepository.findById(999L)).thenReturn(Optional.empty());
+        LivroCadastroDTO dto = dto("9780134685991", 1L, 999L);
+        when(livroRepository.findParaAtualizar(id, 1L, 999L)).thenReturn(Optional.empty());
+        when(livroRepository.existsById(id)).thenReturn(true);
+        when(autorRepository.existsById(1L)).thenReturn(true);
 
         assertThrows(GeneroNaoEncontradoException.class, () -> service.atualizar(id, dto));
-        verify(livroRepository, never()).save(any());
+        verify(livroRepository, never()).saveAndFlush(any());
     }
 
 
     @Test
-    void deletar_deveExcluir_quandoExiste() {
-        when(livroRepository.existsById(123L)).thenReturn(true);
+    void versao_deveCombinarVersoesDoLivroAutorEGenero() {
+        LivroRepository.VersoesLivro versoes = mock(LivroRepository.VersoesLivro.class);
+        when(versoes.getLivro()).thenReturn(3L);
+        when(versoes.getAutor()).thenReturn(1L);
+        when(versoes.getGenero()).thenReturn(0L);
+        when(livroRepository.findVersoesById(9L)).thenReturn(Optional.of(versoes));
+
+        assertEquals("3-1-0", service.versao(9L));
+    }
+
+    @Test
+    void versao_deveLancarNaoEncontrado_quandoInexistente() {
+        when(livroRepository.findVersoesById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(LivroNaoEncontradoException.class, () -> service.versao(9L));
+    }
+
+    @Test
+    void deletar_deveExcluirEPublicarEvento_quandoExiste() {
+        Livro livro = new Livro();
+        LivroResponseDTO anterior = mock(LivroResponseDTO.class);
+        when(livroRepository.findDetalhadoById(123L)).thenReturn(Optional.of(livro));
+        when(mapper.toResponse(livro)).thenReturn(anterior);
 
         service.deletar(123L);
 
-        verify(livroRepository).deleteById(123L);
+        verify(livroRepository).delete(livro);
+        verify(eventPublisher).publishEvent(new LivroAlteradoEvent(anterior, null));
     }
 
     @Test
     void deletar_deveLancarNaoEncontrado_quandoInexistente() {
-        when(livroRepository.existsById(321L)).thenReturn(false);
+        when(livroRepository.findDetalhadoById(321L)).thenReturn(Optional.empty());
 
         assertThrows(LivroNaoEncontradoException.class, () -> service.deletar(321L));
-        verify(livroRepository, never()).deleteById(anyLong());
+        verify(livroRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static LivroCadastroDTO dto(String isbn, Long autorId, Long generoId) {
+        LivroCadastroDTO dto = mock(LivroCadastroDTO.class);
+        lenient().when(dto.getIsbn()).thenReturn(isbn);
+        lenient().when(dto.getAutorId()).thenReturn(autorId);
+        lenient().when(dto.getGeneroId()).thenReturn(generoId);
+        return dto;
+    }
+
+    private void referencias() {
+        when(livroRepository.findReferencias(1L, 2L))
+                .thenReturn(Optional.of(new LivroReferenciasRepository.Referencias(autor, genero)));
+    }
+
+    private void paraAtualizar(Long id, Livro livro) {
+        when(livroRepository.findParaAtualizar(id, 1L, 2L))
+                .thenReturn(Optional.of(new LivroReferenciasRepository.ParaAtualizar(livro, autor, genero)));
+    }
+
+    private static DataIntegrityViolationException chaveDuplicada() {
+        return new DataIntegrityViolationException("duplicada",
+                new SQLException("Duplicate entry 'dup' for key 'livro.uk_livro_isbn'", "23000", 1062));
     }
 }
@@ -0,0 +1,102 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.EventoPublicado;
+import com.example.desafioTecnico.events.LivroAlteradoEvent;
+import com.example.desafioTecnico.events.LivrosImportadosEvent;
+import com.example.desafioTecnico.events.LoteOutboxGravado;
+import com.example.desafioTecnico.models.dto.LivroResponseDTO;
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import com.example.desafioTecnico.models.enums.TipoEvento;
+import com.example.desafioTecnico.repositories.EventoOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock private EventoOutboxRepository repository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    private OutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OutboxService(repository, new ObjectMapper().findAndRegisterModules(), eventPublisher);
+        lenient().when(repository.save(any())).thenAnswer(inv -> {
+            EventoOutbox evento = inv.getArgument(0);
+            evento.setId(42L);
+            return evento;
+        });
+    }
+
+    @Test
+    void onLivroAlterado_deveGravarLivroCriadoEPublicarOEventoGravado() {
+        service.onLivroAlterado(new LivroAlteradoEvent(null, livro(5L, "Dom Casmurro")));
+
+        EventoOutbox gravado = gravado();
+        assertEquals(TipoEvento.LIVRO_CRIADO, gravado.getTipo());
+        assertEquals(5L, gravado.getAgregadoId());
+        assertTrue(gravado.getPayload().contains("\"titulo\":\"Dom Casmurro\""), gravado.getPayload());
+        assertNotNull(gravado.getCriadoEm());
+        verify(eventPublisher).publishEvent(EventoPublicado.de(gravado));
+    }
+
+    @Test
+    void onLivroAlterado_deveUsarOIdAnterior_quandoRemocao() {
+        service.onLivroAlterado(new LivroAlteradoEvent(livro(8L, "Iracema"), null));
+
+        EventoOutbox gravado = gravado();
+        assertEquals(TipoEvento.LIVRO_REMOVIDO, gravado.getTipo());
+        assertEquals(8L, gravado.getAgregadoId());
+    }
+
+    @Test
+    void onAutorAlterado_deveGravarAutorRemovido_quandoSemEstadoAtual() {
+        service.onAutorAlterado(new AutorAlteradoEvent(3L, null));
+
+        EventoOutbox gravado = gravado();
+        assertEquals(TipoEvento.AUTOR_REMOVIDO, gravado.getTipo());
+        assertEquals(3L, gravado.getAgregadoId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onLivrosImportados_deveGravarOLoteNumInsertSo() {
+        service.onLivrosImportados(new LivrosImportadosEvent(List.of(livro(5L, "Dom Casmurro"), livro(6L, "Iracema"))));
+
+        ArgumentCaptor<List<EventoOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).inserirEmLote(captor.capture());
+        List<EventoOutbox> gravados = captor.getValue();
+        assertEquals(List.of(5L, 6L), gravados.stream().map(EventoOutbox::getAgregadoId).toList());
+        assertTrue(gravados.stream().allMatch(e -> e.getTipo() == TipoEvento.LIVRO_CRIADO));
+        assertTrue(gravados.get(1).getPayload().contains("\"titulo\":\"Iracema\""), gravados.get(1).getPayload());
+        verify(repository, never()).save(any());
+        verify(eventPublisher).publishEvent(new LoteOutboxGravado(2));
+    }
+
+    private EventoOutbox gravado() {
+        ArgumentCaptor<EventoOutbox> captor = ArgumentCaptor.forClass(EventoOutbox.class);
+        verify(repository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static LivroResponseDTO livro(Long id, String titulo) {
+        LivroResponseDTO livro = new LivroResponseDTO();
+        livro.setId(id);
+        livro.setTitulo(titulo);
+        return livro;
+    }
+}
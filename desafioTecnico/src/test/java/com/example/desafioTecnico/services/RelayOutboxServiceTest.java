@@ -0,0 +1,160 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.DestinoEventos;
+import com.example.desafioTecnico.events.EventoPublicado;
+import com.example.desafioTecnico.models.entities.EventoOutbox;
+import com.example.desafioTecnico.models.enums.TipoEvento;
+import com.example.desafioTecnico.repositories.EventoOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RelayOutboxServiceTest {
+
+    @Mock private EventoOutboxRepository repository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final DestinoFalho destino = new DestinoFalho();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RelayOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        // Lote de 2, fila de 3 eventos
+        service = new RelayOutboxService(repository, List.of(destino), transactionManager, 2, 3, 60_000);
+        service.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void entregar_deveApagarOsEventos_depoisDeEntreguesAoDestino() {
+        assertTrue(service.entregar(List.of(evento(1L), evento(2L))));
+
+        assertEquals(List.of(List.of(1L, 2L)), destino.lotes);
+        verify(repository).deleteByIdIn(List.of(1L, 2L));
+        assertEquals(2, registry.get("outbox.eventos.entregues").tag("destino", "falho").counter().count());
+        assertEquals(2, registry.get("outbox.entrega.atraso").timer().count());
+    }
+
+    @Test
+    void entregar_deveReterOLoteSemBloquear_quandoDestinoFalha() {
+        destino.falhasRestantes = 1;
+
+        assertFalse(service.entregar(List.of(evento(1L))));
+        assertEquals(1, registry.get("outbox.destino.falhas").counter().count());
+        verify(repository, never()).deleteByIdIn(any());
+
+        assertTrue(service.entregar(List.of(evento(1L))));
+        assertEquals(List.of(List.of(1L), List.of(1L)), destino.lotes);
+        verify(repository).deleteByIdIn(List.of(1L));
+    }
+
+    @Test
+    void enfileirar_deveDescartarSemBloquear_quandoFilaCheia() {
+        assertTrue(service.enfileirar(evento(1L)));
+        assertTrue(service.enfileirar(evento(2L)));
+        assertTrue(service.enfileirar(evento(3L)));
+        // Repetido não ocupa outra vaga
+        assertTrue(service.enfileirar(evento(3L)));
+
+        assertFalse(service.enfileirar(evento(4L)));
+        assertEquals(3, registry.get("outbox.fila").gauge().value());
+        assertEquals(1, registry.get("outbox.fila.descartados").counter().count());
+    }
+
+    @Test
+    void varrer_deveEnfileirarSoOsPendentesQueNaoEstaoNaFila() {
+        service.enfileirar(evento(1L));
+        when(repository.findPendentes(any())).thenReturn(
+                List.of(pendente(1L, 30), pendente(2L, 20), pendente(3L, 10)));
+
+        service.varrer();
+
+        assertEquals(3, registry.get("outbox.fila").gauge().value());
+        assertEquals(2, registry.get("outbox.varredura.recuperados").counter().count());
+    }
+
+    @Test
+    void medirAtraso_deveMedirOPendenteMaisAntigo_semPassarPeloRelay() {
+        when(repository.findCriadoEmMaisAntigo()).thenReturn(Instant.now().minusSeconds(30));
+
+        service.medirAtraso();
+
+        assertTrue(registry.get("outbox.atraso").gauge().value() >= 30);
+    }
+
+    @Test
+    void iniciar_deveEntregarOsEventosGravadosDepoisDoCommit() throws Exception {
+        service.iniciar();
+
+        service.onEventoGravado(evento(7L));
+
+        assertTrue(destino.entregue.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(7L)), destino.lotes);
+        verify(repository, timeout(5000)).deleteByIdIn(List.of(7L));
+    }
+
+    @Test
+    void iniciar_deveRetomarOLoteRetido_depoisDaEspera() throws Exception {
+        destino.falhasRestantes = 1;
+        service.iniciar();
+
+        service.onEventoGravado(evento(7L));
+
+        assertTrue(destino.entregue.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(7L), List.of(7L)), destino.lotes);
+        verify(repository, timeout(5000)).deleteByIdIn(List.of(7L));
+    }
+
+    private static EventoPublicado evento(Long id) {
+        return new EventoPublicado(id, TipoEvento.LIVRO_CRIADO, id, "{}", Instant.now());
+    }
+
+    private static EventoOutbox pendente(Long id, long segundos) {
+        EventoOutbox evento = new EventoOutbox(TipoEvento.LIVRO_CRIADO, id, "{}", Instant.now().minusSeconds(segundos));
+        evento.setId(id);
+        return evento;
+    }
+
+    /** Destino que recusa os primeiros {@code falhasRestantes} lotes. */
+    private static class DestinoFalho implements DestinoEventos {
+        final List<List<Long>> lotes = new CopyOnWriteArrayList<>();
+        final Semaphore entregue = new Semaphore(0);
+        volatile int falhasRestantes;
+
+        @Override
+        public String nome() {
+            return "falho";
+        }
+
+        @Override
+        public void publicar(List<EventoPublicado> eventos) {
+            lotes.add(eventos.stream().map(EventoPublicado::id).toList());
+            if (falhasRestantes > 0) {
+                falhasRestantes--;
+                throw new IllegalStateException("destino fora do ar");
+            }
+            entregue.release();
+        }
+    }
+}
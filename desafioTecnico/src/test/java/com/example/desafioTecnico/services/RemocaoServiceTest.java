@@ -0,0 +1,133 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.events.AutorAlteradoEvent;
+import com.example.desafioTecnico.events.GeneroAlteradoEvent;
+import com.example.desafioTecnico.events.RemocaoAgendadaEvent;
+import com.example.desafioTecnico.exception.RemocaoNaoEncontradaException;
+import com.example.desafioTecnico.models.dto.RemocaoDTO;
+import com.example.desafioTecnico.models.enums.EstadoRemocao;
+import com.example.desafioTecnico.models.enums.TipoRemocao;
+import com.example.desafioTecnico.repositories.AutorRepository;
+import com.example.desafioTecnico.repositories.GeneroRepository;
+import com.example.desafioTecnico.repositories.LivroRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RemocaoServiceTest {
+
+    @Mock private LivroRepository livroRepository;
+    @Mock private AutorRepository autorRepository;
+    @Mock private GeneroRepository generoRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private RemocaoService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RemocaoService(livroRepository, autorRepository, generoRepository,
+                eventPublisher, transactionManager, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void executar_deveApagarLivrosEmBlocosEDepoisOGenero() {
+        RemocaoDTO agendada = service.agendar(TipoRemocao.GENERO, 7L);
+        verify(eventPublisher).publishEvent(new RemocaoAgendadaEvent(agendada.id()));
+        when(livroRepository.countByGeneroId(7L)).thenReturn(3L);
+        when(livroRepository.findIdsPorGenero(eq(7L), any()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(livroRepository.deleteByIdIn(any())).thenReturn(2, 1);
+
+        service.executar(agendada.id());
+
+        RemocaoDTO concluida = service.buscar(agendada.id());
+        assertEquals(EstadoRemocao.CONCLUIDA, concluida.estado());
+        assertEquals(3L, concluida.livrosRemovidos());
+        assertEquals(3L, concluida.totalLivros());
+        assertNotNull(concluida.concluidaEm());
+        // Bloco parcial encerra a leitura: não há terceira consulta de ids
+        verify(livroRepository, times(2)).findIdsPorGenero(eq(7L), any());
+        verify(generoRepository).deleteMarcado(7L);
+        verify(eventPublisher).publishEvent(new GeneroAlteradoEvent(7L, null));
+    }
+
+    @Test
+    void executar_deveRepetirBlocos_quandoLivroGravadoDuranteARemocao() {
+        RemocaoDTO agendada = service.agendar(TipoRemocao.AUTOR, 4L);
+        when(livroRepository.findIdsPorAutor(eq(4L), any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(9L))
+                .thenReturn(List.of());
+        when(livroRepository.deleteByIdIn(List.of(9L))).thenReturn(1);
+        when(autorRepository.deleteMarcado(4L))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenReturn(1);
+
+        service.executar(agendada.id());
+
+        RemocaoDTO concluida = service.buscar(agendada.id());
+        assertEquals(EstadoRemocao.CONCLUIDA, concluida.estado());
+        assertEquals(1L, concluida.livrosRemovidos());
+        verify(autorRepository, times(2)).deleteMarcado(4L);
+    }
+
+    @Test
+    void executar_deveMarcarFalha_quandoBancoRecusaRepetidamente() {
+        RemocaoDTO agendada = service.agendar(TipoRemocao.AUTOR, 4L);
+        when(livroRepository.findIdsPorAutor(eq(4L), any())).thenReturn(List.of());
+        when(autorRepository.deleteMarcado(4L)).thenThrow(new DataIntegrityViolationException("fk"));
+
+        service.executar(agendada.id());
+
+        RemocaoDTO falha = service.buscar(agendada.id());
+        assertEquals(EstadoRemocao.FALHOU, falha.estado());
+        assertEquals("fk", falha.erro());
+        verify(autorRepository, times(3)).deleteMarcado(4L);
+        verify(eventPublisher, never()).publishEvent(any(AutorAlteradoEvent.class));
+    }
+
+    @Test
+    void agendar_deveDevolverRemocaoEmAndamento_quandoMesmoAlvo() {
+        RemocaoDTO primeira = service.agendar(TipoRemocao.GENERO, 1L);
+        RemocaoDTO segunda = service.agendar(TipoRemocao.GENERO, 1L);
+        RemocaoDTO outroTipo = service.agendar(TipoRemocao.AUTOR, 1L);
+
+        assertEquals(primeira.id(), segunda.id());
+        assertNotEquals(primeira.id(), outroTipo.id());
+        verify(eventPublisher, times(2)).publishEvent(any(RemocaoAgendadaEvent.class));
+    }
+
+    @Test
+    void buscar_deveLancarNaoEncontrada_quandoIdDesconhecido() {
+        assertThrows(RemocaoNaoEncontradaException.class, () -> service.buscar("nao-existe"));
+    }
+
+    @Test
+    void onRemocaoDesfeita_deveDescartarRemocao() {
+        RemocaoDTO agendada = service.agendar(TipoRemocao.GENERO, 2L);
+
+        service.onRemocaoDesfeita(new RemocaoAgendadaEvent(agendada.id()));
+
+        assertThrows(RemocaoNaoEncontradaException.class, () -> service.buscar(agendada.id()));
+    }
+}
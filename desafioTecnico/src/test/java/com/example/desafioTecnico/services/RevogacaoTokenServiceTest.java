@@ -0,0 +1,82 @@
+package com.example.desafioTecnico.services;
+
+import com.example.desafioTecnico.models.entities.TokenRevogado;
+import com.example.desafioTecnico.repositories.TokenRevogadoRepository;
+import com.example.desafioTecnico.security.JwtService;
+import com.example.desafioTecnico.security.ListaRevogacao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevogacaoTokenServiceTest {
+
+    private static final String SECRET = "LhVC0v2Oyqrm1rIggQdpq2oE6lFCrYF8tmT5+3RIRX0=";
+
+    @Mock private TokenRevogadoRepository repository;
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000L, 100L);
+    private final ListaRevogacao lista = new ListaRevogacao(100);
+    private RevogacaoTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RevogacaoTokenService(repository, jwtService, lista);
+    }
+
+    @Test
+    void revogar_deveGravarEBloquearNaHora() {
+        String token = jwtService.generateToken("alice", Set.of("LEITURA"));
+        String jti = jwtService.verify(token).jti();
+
+        service.revogar(token);
+
+        ArgumentCaptor<TokenRevogado> salvo = ArgumentCaptor.forClass(TokenRevogado.class);
+        verify(repository).save(salvo.capture());
+        assertEquals(jti, salvo.getValue().getJti());
+        assertEquals("alice", salvo.getValue().getUsername());
+        assertTrue(lista.revogado(jti));
+    }
+
+    @Test
+    void revogar_deveIgnorar_quandoTokenJaVenceu() {
+        String token = new JwtService(SECRET, -1_000L, 100L).generateToken("alice", Set.of("LEITURA"));
+
+        service.revogar(token);
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void revogar_deveLancarBadCredentials_quandoAssinaturaInvalida() {
+        String token = new JwtService("c2VncmVkby1kaWZlcmVudGUtY29tLTMyLWJ5dGVzLW91LW1haXM=", 60_000L, 100L)
+                .generateToken("alice", Set.of("LEITURA"));
+
+        assertThrows(BadCredentialsException.class, () -> service.revogar(token));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void sincronizar_deveTrazerRevogacoesDeOutrasInstancias() {
+        Instant expiraEm = Instant.now().plusSeconds(600);
+        when(repository.findByRevogadoEmAfterAndExpiraEmAfter(any(), any()))
+                .thenReturn(List.of(new TokenRevogado("jti-remoto", "bob", expiraEm, Instant.now())));
+
+        service.sincronizar();
+
+        assertTrue(lista.revogado("jti-remoto"));
+        verify(repository).deleteExpirados(any());
+    }
+}
@@ -0,0 +1,114 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.Context;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/** A migração roda sobre a tabela livro como a V2 a deixou, com ISBNs gravados antes da forma canônica. */
+@ExtendWith(MockitoExtension.class)
+class V5__IsbnCanonicoTest {
+
+    @Mock private Context context;
+
+    private Connection conexao;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:v5-isbn;MODE=MySQL");
+        conexao = dataSource.getConnection();
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("""
+                    create table livro (
+                        id               bigint      not null,
+                        isbn             varchar(20) not null,
+                        versao           bigint      not null default 0,
+                        isbn_normalizado varchar(20) generated always as (lower(isbn)),
+                        primary key (id),
+                        constraint uk_livro_isbn unique (isbn)
+                    )""");
+            statement.execute("""
+                    insert into livro (id, isbn, versao) values
+                        (1, '978-0-306-40615-7', 0),
+                        (2, '0-8044-2957-X', 3),
+                        (3, '9780134685991', 1),
+                        (4, 'sem-isbn', 0),
+                        (5, '0134685997', 2)""");
+        }
+        when(context.getConnection()).thenReturn(conexao);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conexao.close();
+    }
+
+    @Test
+    void migrate_deveRegravarNaFormaCanonicaESubirAVersao() throws SQLException {
+        new V5__IsbnCanonico().migrate(context);
+
+        Map<Long, String> livros = livros();
+        assertEquals("9780306406157 v1", livros.get(1L));
+        assertEquals("9780804429573 v4", livros.get(2L));
+        assertEquals("9780134685991 v1", livros.get(3L));
+    }
+
+    @Test
+    void migrate_deveManterComoEstao_quandoIsbnInvalidoOuCanonicoJaGravado() throws SQLException {
+        new V5__IsbnCanonico().migrate(context);
+
+        Map<Long, String> livros = livros();
+        assertEquals("sem-isbn v0", livros.get(4L));
+        // A forma canônica de 0134685997 é a do livro 3
+        assertEquals("0134685997 v2", livros.get(5L));
+    }
+
+    @Test
+    void migrate_deveRemoverAColunaIsbnNormalizado() throws SQLException {
+        new V5__IsbnCanonico().migrate(context);
+
+        try (Statement statement = conexao.createStatement();
+             ResultSet colunas = statement.executeQuery("""
+                     select count(*) from information_schema.columns
+                     where lower(table_name) = 'livro' and lower(column_name) = 'isbn_normalizado'""")) {
+            colunas.next();
+            assertEquals(0, colunas.getInt(1));
+        }
+    }
+
+    @Test
+    void canonico_deveSeguirAFormaCanonicaDaEpocaDaMigracao() {
+        assertEquals("9780306406157", V5__IsbnCanonico.canonico("978-0-306-40615-7"));
+        assertEquals("9780804429573", V5__IsbnCanonico.canonico("0-8044-2957-X"));
+        assertEquals("9780134685991", V5__IsbnCanonico.canonico("0134685997"));
+        assertNull(V5__IsbnCanonico.canonico("9780306406158"));
+        assertNull(V5__IsbnCanonico.canonico("sem-isbn"));
+    }
+
+    /** "isbn vN" por id. */
+    private Map<Long, String> livros() throws SQLException {
+        Map<Long, String> livros = new LinkedHashMap<>();
+        try (Statement statement = conexao.createStatement();
+             ResultSet linhas = statement.executeQuery("select id, isbn, versao from livro order by id")) {
+            while (linhas.next()) {
+                livros.put(linhas.getLong(1), linhas.getString(2) + " v" + linhas.getLong(3));
+            }
+        }
+        return livros;
+    }
+}